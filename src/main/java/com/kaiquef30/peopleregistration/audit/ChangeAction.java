@@ -0,0 +1,7 @@
+package com.kaiquef30.peopleregistration.audit;
+
+public enum ChangeAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
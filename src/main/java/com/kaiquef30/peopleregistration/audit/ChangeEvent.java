@@ -0,0 +1,8 @@
+package com.kaiquef30.peopleregistration.audit;
+
+/**
+ * One committed mutation. {@code personId} is the owner for addresses and the person itself for people; it is
+ * {@code null} for addresses without an owner.
+ */
+public record ChangeEvent(ChangeSubject subject, ChangeAction action, long entityId, Long personId, long occurredAt) {
+}
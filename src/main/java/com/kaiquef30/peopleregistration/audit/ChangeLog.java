@@ -0,0 +1,236 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records person and address mutations without adding a write to the mutating transaction. Events are queued after
+ * commit in a bounded queue and a single writer thread appends whatever has accumulated, up to
+ * {@code app.audit.batch-size} events, to the {@link ChangeLogSink} in one call: under load batches grow, when idle
+ * each event is written on its own.
+ *
+ * <p>When the queue is full, producers wait up to {@code app.audit.enqueue-timeout-ms} for the writer to catch up and
+ * the event is dropped (and counted) after that, so a stalled sink slows mutations down but never blocks them.
+ */
+@Component
+public class ChangeLog {
+
+    public static final String METRIC_PREFIX = "audit";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeLog.class);
+
+    private static final int APPEND_ATTEMPTS = 3;
+
+    private final ChangeLogSink sink;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final int batchSize;
+
+    private final boolean durable;
+
+    private final long enqueueTimeout;
+
+    private final long durableWait;
+
+    private final Counter written;
+
+    private final Counter dropped;
+
+    private final Counter failed;
+
+    private final DistributionSummary batchSizes;
+
+    private final Timer appendTimer;
+
+    private final AtomicLong enqueued = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicBoolean overflowing = new AtomicBoolean();
+
+    private final Thread writer = new Thread(this::run, "change-log-writer");
+
+    private volatile boolean running = true;
+
+    public ChangeLog(ChangeLogSink sink, MeterRegistry meterRegistry,
+                     @Value("${app.audit.queue-capacity:8192}") int queueCapacity,
+                     @Value("${app.audit.batch-size:500}") int batchSize,
+                     @Value("${app.audit.durability:buffered}") ChangeLogDurability durability,
+                     @Value("${app.audit.enqueue-timeout-ms:50}") long enqueueTimeout,
+                     @Value("${app.audit.durable-wait-ms:1000}") long durableWait) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.durable = durability == ChangeLogDurability.DURABLE;
+        this.enqueueTimeout = enqueueTimeout;
+        this.durableWait = durableWait;
+        this.written = events(meterRegistry, "written");
+        this.dropped = events(meterRegistry, "dropped");
+        this.failed = events(meterRegistry, "failed");
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Change events appended per sink call")
+                .register(meterRegistry);
+        this.appendTimer = Timer.builder(METRIC_PREFIX + ".append.duration")
+                .description("Time spent appending one batch to the change log sink")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", queue, BlockingQueue::size)
+                .description("Change events waiting for the writer")
+                .register(meterRegistry);
+        writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public void recordPerson(ChangeAction action, Long personId) {
+        record(new ChangeEvent(ChangeSubject.PERSON, action, personId, personId, System.currentTimeMillis()));
+    }
+
+    public void recordAddress(ChangeAction action, Long addressId, Long personId) {
+        record(new ChangeEvent(ChangeSubject.ADDRESS, action, addressId, personId, System.currentTimeMillis()));
+    }
+
+    /**
+     * Waits until every event queued so far has been handed to the sink.
+     *
+     * @return {@code false} if the timeout elapsed first
+     */
+    public boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long target = enqueued.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (processed.get() < target) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void record(ChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    private void enqueue(ChangeEvent event) {
+        Pending pending = new Pending(event, durable ? new CountDownLatch(1) : null);
+        try {
+            if (!running || !queue.offer(pending, enqueueTimeout, TimeUnit.MILLISECONDS)) {
+                dropped.increment();
+                if (overflowing.compareAndSet(false, true)) {
+                    LOG.warn("Change log queue is full; dropping events until the writer catches up");
+                }
+                return;
+            }
+            enqueued.incrementAndGet();
+            if (pending.appended != null && !pending.appended.await(durableWait, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Change event {} not yet durable after {} ms", event, durableWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        List<ChangeEvent> events = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            for (Pending pending : batch) {
+                events.add(pending.event);
+            }
+            append(events);
+            for (Pending pending : batch) {
+                if (pending.appended != null) {
+                    pending.appended.countDown();
+                }
+            }
+            processed.addAndGet(batch.size());
+            batch.clear();
+            events.clear();
+            overflowing.set(false);
+        }
+    }
+
+    private void append(List<ChangeEvent> events) {
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.append(events, durable);
+                written.increment(events.size());
+                break;
+            } catch (IOException | RuntimeException e) {
+                if (attempt == APPEND_ATTEMPTS) {
+                    failed.increment(events.size());
+                    LOG.error("Could not append {} change events after {} attempts", events.size(), attempt, e);
+                    break;
+                }
+                LOG.warn("Could not append {} change events, retrying", events.size(), e);
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(events.size());
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_PREFIX + ".events")
+                .description("Change events by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Pending(ChangeEvent event, CountDownLatch appended) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.kaiquef30.peopleregistration.audit;
+
+public enum ChangeLogDurability {
+    /**
+     * The mutation returns once its event is queued; events still queued or not yet flushed by the sink are lost if
+     * the process dies.
+     */
+    BUFFERED,
+    /**
+     * The committing thread waits until the batch holding its event has been forced to stable storage. Concurrent
+     * mutations share one write and one force.
+     */
+    DURABLE
+}
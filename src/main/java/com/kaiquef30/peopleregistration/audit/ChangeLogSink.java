@@ -0,0 +1,16 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Append-only destination of the change log. Called from the single writer thread only, with batches in commit
+ * order.
+ */
+public interface ChangeLogSink {
+
+    /**
+     * @param force whether the batch must be on stable storage when the call returns
+     */
+    void append(List<ChangeEvent> events, boolean force) throws IOException;
+}
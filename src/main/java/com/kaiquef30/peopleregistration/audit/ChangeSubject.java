@@ -0,0 +1,6 @@
+package com.kaiquef30.peopleregistration.audit;
+
+public enum ChangeSubject {
+    PERSON,
+    ADDRESS
+}
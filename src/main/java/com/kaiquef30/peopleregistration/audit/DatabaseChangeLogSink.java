@@ -0,0 +1,37 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import com.kaiquef30.peopleregistration.domains.ChangeLogEntry;
+import com.kaiquef30.peopleregistration.repositories.ChangeLogEntryRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends each batch to {@code tb_change_log} in one transaction, so the cost of a commit is paid per batch rather
+ * than per mutation. A committed batch is durable either way, so {@code force} changes nothing here.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.sink", havingValue = "database", matchIfMissing = true)
+public class DatabaseChangeLogSink implements ChangeLogSink {
+
+    private final ChangeLogEntryRepository changeLogEntryRepository;
+
+    public DatabaseChangeLogSink(ChangeLogEntryRepository changeLogEntryRepository) {
+        this.changeLogEntryRepository = changeLogEntryRepository;
+    }
+
+    @Transactional
+    @Override
+    public void append(List<ChangeEvent> events, boolean force) {
+        List<ChangeLogEntry> entries = new ArrayList<>(events.size());
+        for (ChangeEvent event : events) {
+            entries.add(new ChangeLogEntry(event.subject(), event.action(), event.entityId(), event.personId(),
+                    Instant.ofEpochMilli(event.occurredAt())));
+        }
+        changeLogEntryRepository.saveAll(entries);
+    }
+}
@@ -0,0 +1,139 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Appends the change log to memory-mapped segment files ({@code changes-000000000000.seg}, ...) in a directory.
+ * Records have a fixed size of {@value #RECORD_SIZE} bytes; a slot whose first byte is zero has not been written, which
+ * is how the end of the last segment is found again after a restart. Appending is a copy into the mapped page cache,
+ * and {@code force} flushes the pages written since the previous force.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.sink", havingValue = "file")
+public class SegmentFileChangeLogSink implements ChangeLogSink {
+
+    static final int RECORD_SIZE = 32;
+
+    private static final String PREFIX = "changes-";
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private int segmentIndex;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private int forcedUpTo;
+
+    public SegmentFileChangeLogSink(@Value("${app.audit.directory:audit}") Path directory,
+                                    @Value("${app.audit.segment-size-bytes:67108864}") int segmentSize) throws IOException {
+        if (segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("app.audit.segment-size-bytes must hold at least one record");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        this.segmentIndex = lastSegmentIndex(this.directory);
+        openSegment();
+        while (segment.hasRemaining() && segment.get(segment.position()) != 0) {
+            segment.position(segment.position() + RECORD_SIZE);
+        }
+        forcedUpTo = segment.position();
+    }
+
+    @Override
+    public synchronized void append(List<ChangeEvent> events, boolean force) throws IOException {
+        for (ChangeEvent event : events) {
+            if (!segment.hasRemaining()) {
+                segment.force();
+                channel.close();
+                segmentIndex++;
+                openSegment();
+                forcedUpTo = 0;
+            }
+            write(segment, event);
+        }
+        if (force && segment.position() > forcedUpTo) {
+            segment.force(forcedUpTo, segment.position() - forcedUpTo);
+            forcedUpTo = segment.position();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    static List<ChangeEvent> read(Path segmentFile) throws IOException {
+        List<ChangeEvent> events = new ArrayList<>();
+        try (FileChannel readChannel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            while (buffer.remaining() >= RECORD_SIZE && buffer.get(buffer.position()) != 0) {
+                events.add(read(buffer));
+            }
+        }
+        return events;
+    }
+
+    static Path segmentFile(Path directory, int index) {
+        return directory.resolve(String.format("%s%012d%s", PREFIX, index, SUFFIX));
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(segmentFile(directory, segmentIndex), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private static int lastSegmentIndex(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .mapToInt(name -> Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .max()
+                    .orElse(0);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(MappedByteBuffer buffer, ChangeEvent event) {
+        int start = buffer.position();
+        buffer.put(start + 1, (byte) event.action().ordinal());
+        buffer.putLong(start + 8, event.entityId());
+        buffer.putLong(start + 16, event.personId() != null ? event.personId() : 0);
+        buffer.putLong(start + 24, event.occurredAt());
+        // Written last, so a slot only counts as used once the rest of the record is in place.
+        buffer.put(start, (byte) (event.subject().ordinal() + 1));
+        buffer.position(start + RECORD_SIZE);
+    }
+
+    private static ChangeEvent read(MappedByteBuffer buffer) {
+        int start = buffer.position();
+        long personId = buffer.getLong(start + 16);
+        ChangeEvent event = new ChangeEvent(ChangeSubject.values()[buffer.get(start) - 1],
+                ChangeAction.values()[buffer.get(start + 1)], buffer.getLong(start + 8),
+                personId != 0 ? personId : null, buffer.getLong(start + 24));
+        buffer.position(start + RECORD_SIZE);
+        return event;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String PEOPLE = "people";
+
+    public static final String ADDRESSES = "addresses";
+
+    /**
+     * {@link ReadCache} times its puts and evictions around the transaction itself, so the caches are used directly.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${APP_CACHE_MAXIMUMSIZE:#{10000}}") long maximumSize,
+                                     @Value("${APP_CACHE_TTLINSECONDS:#{300}}") long ttlInSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PEOPLE, ADDRESSES);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlInSeconds))
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,170 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.configs.datasource.ReadWriteRoutingDataSource;
+import com.kaiquef30.peopleregistration.configs.datasource.ReadYourWritesFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single-item reads cached as DTOs. Links depend on the request that is being answered, so callers wrap the DTO in
+ * a representation model per request instead of caching one. With read replicas, what a replica returned is not
+ * cached, and requests that must see their own writes skip the cache.
+ * <p>
+ * Loaded values are stored once the reading transaction commits, and only if no write evicted the key after the load
+ * started: a read that raced a write never puts the state the write replaced back. Writes evict on this node only;
+ * other nodes keep serving what they cached until the time to live ({@code APP_CACHE_TTLINSECONDS}) expires it.
+ */
+@Component
+public class ReadCache {
+
+    private final Region<PersonDTO> people;
+
+    private final Region<AddressDTO> addresses;
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    public ReadCache(CacheManager cacheManager, ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        this.people = new Region<>(nativeCache(cacheManager, CacheConfiguration.PEOPLE), PersonDTO.class,
+                PersonDTO::getVersion);
+        this.addresses = new Region<>(nativeCache(cacheManager, CacheConfiguration.ADDRESSES), AddressDTO.class,
+                AddressDTO::getVersion);
+        this.routingDataSource = routingDataSource.getIfAvailable();
+    }
+
+    public PersonDTO getPerson(Long personId, Supplier<PersonDTO> loader) {
+        return get(people, personId, loader);
+    }
+
+    public AddressDTO getAddress(Long addressId, Supplier<AddressDTO> loader) {
+        return get(addresses, addressId, loader);
+    }
+
+    void evictPerson(Long personId) {
+        evict(people, personId);
+    }
+
+    void evictAddress(Long addressId) {
+        evict(addresses, addressId);
+    }
+
+    private <T> T get(Region<T> region, Long id, Supplier<T> loader) {
+        if (!ReadYourWritesFilter.isPrimaryRequired()) {
+            T cached = region.getIfPresent(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = region.generation(id);
+        T value = loader.get();
+        if (isCacheable()) {
+            afterCommit(() -> region.putIfNotEvictedSince(id, value, generation));
+        }
+        return value;
+    }
+
+    private static void evict(Region<?> region, Long id) {
+        if (id != null) {
+            afterCommit(() -> region.evict(id));
+        }
+    }
+
+    /**
+     * Called from the transaction that loaded the value, which is the one the routing decision was made for.
+     */
+    private boolean isCacheable() {
+        return routingDataSource == null
+                || !routingDataSource.routesToReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(name))).getNativeCache();
+    }
+
+    /**
+     * One cache plus a striped eviction counter kept beside it, so the cache itself only ever holds DTOs and its hit,
+     * miss and size statistics describe real entries. A load remembers its key's stripe before it starts; an eviction
+     * bumps the stripe before invalidating the key, and the put re-checks the stripe under the key's lock, so either the
+     * put sees the bump and is dropped or the invalidation removes what it stored. Keys sharing a stripe only cost each
+     * other a skipped put.
+     */
+    private static final class Region<T> {
+
+        private static final int STRIPES = 1024;
+
+        private final Cache<Object, Object> cache;
+
+        private final Class<T> type;
+
+        private final Function<T, Long> version;
+
+        private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+        Region(Cache<Object, Object> cache, Class<T> type, Function<T, Long> version) {
+            this.cache = cache;
+            this.type = type;
+            this.version = version;
+        }
+
+        T getIfPresent(Long id) {
+            Object cached = cache.getIfPresent(id);
+            return type.isInstance(cached) ? type.cast(cached) : null;
+        }
+
+        long generation(Long id) {
+            return generations.get(stripe(id));
+        }
+
+        /**
+         * A newer version stored by a concurrent read wins over an older one.
+         */
+        void putIfNotEvictedSince(Long id, T value, long generation) {
+            cache.asMap().compute(id, (key, current) -> {
+                if (generations.get(stripe(id)) != generation) {
+                    return current;
+                }
+                if (type.isInstance(current) && versionOf(type.cast(current)) > versionOf(value)) {
+                    return current;
+                }
+                return value;
+            });
+        }
+
+        void evict(Long id) {
+            generations.incrementAndGet(stripe(id));
+            cache.invalidate(id);
+        }
+
+        private long versionOf(T value) {
+            return Objects.requireNonNullElse(version.apply(value), 0L);
+        }
+
+        private static int stripe(Long id) {
+            return Long.hashCode(id) & (STRIPES - 1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReadCacheEvictor {
+
+    private final ReadCache readCache;
+
+    public ReadCacheEvictor(ReadCache readCache) {
+        this.readCache = readCache;
+    }
+
+    public void evictPerson(Long personId) {
+        readCache.evictPerson(personId);
+    }
+
+    public void evictAddress(Long addressId) {
+        readCache.evictAddress(addressId);
+    }
+
+    public void evictPersonWithAddresses(Person person) {
+        evictPerson(person.getId());
+        for (Address address : person.getAddress()) {
+            evictAddress(address.getId());
+        }
+    }
+
+    public void evictAddressWithOwner(Address address) {
+        evictAddress(address.getId());
+        if (address.getPerson() != null) {
+            evictPerson(address.getPerson().getId());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.kaiquef30.peopleregistration.configs.datasource.ReadWriteRoutingDataSource;
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Properties;
+
+/**
+ * In-process Hibernate second-level cache for people, addresses and the {@code Person.address} collection, so
+ * {@code findById} and lazy collection loads are served from memory across requests. Each node keeps its own hot set;
+ * the time to live bounds how long a node can serve a row another node has since changed. Writes load from the
+ * database instead (see {@link SessionCacheModeListener}), so only read-only transactions are served from it. Bulk JPQL on a cached entity would evict every region holding it, so the one bulk
+ * statement, {@code AddressRepository#switchMainAddress}, is native and synchronized on {@code Address} only.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    public static final List<String> REGIONS = List.of(Person.CACHE_REGION, Person.ADDRESS_CACHE_REGION, Address.CACHE_REGION);
+
+    /**
+     * Every application context gets its own manager, so closing one context never closes the regions of another.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.jpa.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager secondLevelCacheManager(
+            @Value("${app.jpa.second-level-cache.person-maximum-size:10000}") long personMaximumSize,
+            @Value("${app.jpa.second-level-cache.person-address-maximum-size:10000}") long personAddressMaximumSize,
+            @Value("${app.jpa.second-level-cache.address-maximum-size:20000}") long addressMaximumSize,
+            @Value("${app.jpa.second-level-cache.ttl-in-seconds:300}") long ttlInSeconds) {
+        CacheManager cacheManager = new CacheManagerImpl(new CaffeineCachingProvider(), false,
+                URI.create("people-registration-l2-" + ObjectUtils.getIdentityHexString(this)),
+                getClass().getClassLoader(), new Properties());
+        Duration ttl = Duration.ofSeconds(ttlInSeconds);
+        cacheManager.createCache(Person.CACHE_REGION, region(personMaximumSize, ttl));
+        cacheManager.createCache(Person.ADDRESS_CACHE_REGION, region(personAddressMaximumSize, ttl));
+        cacheManager.createCache(Address.CACHE_REGION, region(addressMaximumSize, ttl));
+        return cacheManager;
+    }
+
+    /**
+     * Hands the manager to Hibernate, which fails at startup if a cached entity has no region sized here. The
+     * properties files switch the cache off, so slices and disabled nodes never fall back to provider discovery.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> secondLevelCacheManager) {
+        return properties -> {
+            CacheManager cacheManager = secondLevelCacheManager.getIfAvailable();
+            if (cacheManager == null) {
+                return;
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.jpa.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public SessionCacheModeListener sessionCacheModeListener(EntityManagerFactory entityManagerFactory,
+                                                             ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        return new SessionCacheModeListener(entityManagerFactory, routingDataSource.getIfAvailable());
+    }
+
+    /**
+     * Publishes {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and {@code cache.size} per region.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.jpa.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                Cache<?, ?> cache = secondLevelCacheManager.getCache(region).unwrap(Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, region, "layer", "hibernate");
+            }
+        };
+    }
+
+    /**
+     * Hibernate keeps its own immutable cache entries, so they are stored by reference instead of being copied on
+     * every read and write as the JCache default would.
+     */
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,59 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.kaiquef30.peopleregistration.configs.datasource.ReadWriteRoutingDataSource;
+import com.kaiquef30.peopleregistration.configs.datasource.ReadYourWritesFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chooses how each new transaction uses the second-level cache. Every node caches on its own, so an entry can trail
+ * a change made through another node:
+ * <ul>
+ *     <li>read-write transactions load from the database ({@link CacheMode#REFRESH}), so a write never starts from
+ *     a stale version and fails the optimistic lock;</li>
+ *     <li>requests that must see their own writes do the same;</li>
+ *     <li>transactions served by a read replica read the cache but never fill it ({@link CacheMode#GET}).</li>
+ * </ul>
+ * The mode is set on every new transaction, since the session of a request outlives its transactions, and as the
+ * session's JPA cache properties, which {@code find} reads instead of the session cache mode.
+ */
+public class SessionCacheModeListener implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    public SessionCacheModeListener(EntityManagerFactory entityManagerFactory,
+                                    ReadWriteRoutingDataSource routingDataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isNewTransaction()
+                || !(TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder)) {
+            return;
+        }
+        CacheMode cacheMode = cacheModeFor(transaction.isReadOnly());
+        EntityManager entityManager = holder.getEntityManager();
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_RETRIEVE_MODE, cacheMode.getJpaRetrieveMode());
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, cacheMode.getJpaStoreMode());
+    }
+
+    private CacheMode cacheModeFor(boolean readOnly) {
+        if (!readOnly || ReadYourWritesFilter.isPrimaryRequired()) {
+            return CacheMode.REFRESH;
+        }
+        if (routingDataSource != null && routingDataSource.routesToReplica(true)) {
+            return CacheMode.GET;
+        }
+        return CacheMode.NORMAL;
+    }
+}
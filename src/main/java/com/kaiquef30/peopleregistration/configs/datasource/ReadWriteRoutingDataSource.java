@@ -0,0 +1,56 @@
+package com.kaiquef30.peopleregistration.configs.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections requested by read-only transactions to the replica pools, round robin, and everything else to
+ * the primary. Only meaningful behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager opens the connection before the read-only flag of the transaction is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final String primaryKey;
+
+    private final List<HikariDataSource> replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.primaryKey = primary.getPoolName();
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(primaryKey, primary);
+        replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Whether a transaction with the given read-only flag, started on the current thread, reads from a replica.
+     * What such a transaction loads may lag behind the primary and must not be put in a cache.
+     */
+    public boolean routesToReplica(boolean readOnly) {
+        return readOnly && !replicas.isEmpty() && !ReadYourWritesFilter.isPrimaryRequired();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!routesToReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return primaryKey;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size())).getPoolName();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
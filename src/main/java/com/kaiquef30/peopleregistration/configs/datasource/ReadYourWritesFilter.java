@@ -0,0 +1,77 @@
+package com.kaiquef30.peopleregistration.configs.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keeps a client on the primary right after it writes, so it reads its own changes even while the replicas lag.
+ * Writing requests get a short-lived cookie holding the end of the sticky period; until then the client's reads are
+ * served by the primary. The state lives in the client, so it also holds when the next request reaches another
+ * replica of the application.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "read-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final long stickiness;
+
+    public ReadYourWritesFilter(long stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean writing = !SAFE_METHODS.contains(request.getMethod());
+        if (writing) {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + stickiness));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (stickiness + 999) / 1000));
+            response.addCookie(cookie);
+        } else if (!isSticky(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    private static boolean isSticky(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
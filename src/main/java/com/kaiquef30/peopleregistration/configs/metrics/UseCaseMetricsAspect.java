@@ -0,0 +1,184 @@
+package com.kaiquef30.peopleregistration.configs.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every use-case operation and splits the elapsed time into phases. Repository and mapper calls made while a
+ * use case runs on the current thread are attributed to the {@code db} and {@code mapping} phases. The commit of its
+ * transaction is the {@code commit} phase: with sequence ids, Hibernate sends most INSERTs and UPDATEs in the flush
+ * the commit starts, so that time is database work that no repository call covers. Whatever remains is reported as
+ * {@code links}: the HATEOAS link and model assembly, the DTO cache and the after-commit callbacks.
+ * <p>
+ * Runs outermost, around the transaction, so cache hits and the commit are measured too. Only the total carries a
+ * percentile histogram; the phases are plain timers, which keeps the series count per method small. Meters are
+ * resolved once per method and the per-thread state is a reused mutable holder, so the steady-state cost is a few
+ * {@link System#nanoTime()} calls per invocation.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UseCaseMetricsAspect implements TransactionExecutionListener {
+
+    public static final String METRIC_NAME = "usecase.duration";
+
+    private static final ThreadLocal<PhaseState> STATE = ThreadLocal.withInitial(PhaseState::new);
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public UseCaseMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.kaiquef30.peopleregistration.useCases.impl.*UseCaseImpl.*(..))")
+    public Object timeUseCase(ProceedingJoinPoint joinPoint) throws Throwable {
+        PhaseState state = STATE.get();
+        if (state.depth > 0) {
+            return joinPoint.proceed();
+        }
+
+        state.reset();
+        state.depth = 1;
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long total = System.nanoTime() - start;
+            state.depth = 0;
+            timersFor(joinPoint).record(total, state.dbNanos, state.mappingNanos, state.commitNanos);
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        PhaseState state = STATE.get();
+        if (state.depth == 0 || state.inPhase) {
+            return joinPoint.proceed();
+        }
+
+        state.inPhase = true;
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            state.dbNanos += System.nanoTime() - start;
+            state.inPhase = false;
+        }
+    }
+
+    @Around("execution(public * com.kaiquef30.peopleregistration.mappers.*Mapper.*(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        PhaseState state = STATE.get();
+        if (state.depth == 0 || state.inPhase) {
+            return joinPoint.proceed();
+        }
+
+        state.inPhase = true;
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            state.mappingNanos += System.nanoTime() - start;
+            state.inPhase = false;
+        }
+    }
+
+    /**
+     * Starts the {@code commit} phase of the running use case. A commit inside a repository call, such as that of a
+     * transactional repository method, is already counted as {@code db}.
+     */
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        PhaseState state = STATE.get();
+        if (state.depth > 0 && !state.inPhase) {
+            state.inPhase = true;
+            state.commitStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        PhaseState state = STATE.get();
+        if (state.commitStart != 0) {
+            state.commitNanos += System.nanoTime() - state.commitStart;
+            state.commitStart = 0;
+            state.inPhase = false;
+        }
+    }
+
+    private MethodTimers timersFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method, this::createTimers);
+        }
+        return methodTimers;
+    }
+
+    private MethodTimers createTimers(Method method) {
+        String useCase = method.getDeclaringClass().getSimpleName().replace("Impl", "");
+        return new MethodTimers(
+                timer(useCase, method.getName(), "total").publishPercentileHistogram().register(meterRegistry),
+                timer(useCase, method.getName(), "db").register(meterRegistry),
+                timer(useCase, method.getName(), "mapping").register(meterRegistry),
+                timer(useCase, method.getName(), "commit").register(meterRegistry),
+                timer(useCase, method.getName(), "links").register(meterRegistry));
+    }
+
+    private static Timer.Builder timer(String useCase, String method, String phase) {
+        return Timer.builder(METRIC_NAME)
+                .description("Use-case latency, overall and per phase")
+                .tag("usecase", useCase)
+                .tag("method", method)
+                .tag("phase", phase);
+    }
+
+    private record MethodTimers(Timer total, Timer db, Timer mapping, Timer commit, Timer links) {
+
+        void record(long totalNanos, long dbNanos, long mappingNanos, long commitNanos) {
+            total.record(totalNanos, TimeUnit.NANOSECONDS);
+            db.record(dbNanos, TimeUnit.NANOSECONDS);
+            mapping.record(mappingNanos, TimeUnit.NANOSECONDS);
+            commit.record(commitNanos, TimeUnit.NANOSECONDS);
+            links.record(Math.max(0, totalNanos - dbNanos - mappingNanos - commitNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class PhaseState {
+
+        private int depth;
+
+        private boolean inPhase;
+
+        private long dbNanos;
+
+        private long mappingNanos;
+
+        private long commitStart;
+
+        private long commitNanos;
+
+        void reset() {
+            inPhase = false;
+            dbNanos = 0;
+            mappingNanos = 0;
+            commitStart = 0;
+            commitNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adds a cluster-wide cap of {@code windowLimit} requests per client and fixed window on top of a replica-local
+ * limiter. Admitted requests are only counted in memory; {@link #collect} and {@link #apply} exchange the counts
+ * with the other replicas on every sync, so the shared store sees one write per active client per sync instead of
+ * one per request. Between two syncs the cluster can overshoot the cap by what the other replicas admitted since
+ * the last one.
+ */
+public class ClusterRateLimiter implements RateLimiter {
+
+    private final String name;
+
+    private final RateLimiter delegate;
+
+    private final long windowMillis;
+
+    private final long windowLimit;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public ClusterRateLimiter(String name, RateLimiter delegate, long windowMillis, long windowLimit) {
+        if (windowMillis < 1 || windowLimit < 1) {
+            throw new IllegalArgumentException("Invalid cluster window: windowMillis=" + windowMillis
+                    + ", windowLimit=" + windowLimit);
+        }
+        this.name = name;
+        this.delegate = delegate;
+        this.windowMillis = windowMillis;
+        this.windowLimit = windowLimit;
+    }
+
+    @Override
+    public long tryAcquire(String key, long nowMillis) {
+        final long start = nowMillis - Math.floorMod(nowMillis, windowMillis);
+        Window window = windows.get(key);
+        if (window == null || window.start != start) {
+            window = windows.compute(key, (k, current) -> current != null && current.start == start ? current : new Window(start));
+        }
+
+        if (window.remoteHits + window.localHits.get() >= windowLimit) {
+            return start + windowMillis - nowMillis;
+        }
+        long retryAfter = delegate.tryAcquire(key, nowMillis);
+        if (retryAfter == 0) {
+            window.localHits.incrementAndGet();
+        }
+        return retryAfter;
+    }
+
+    /**
+     * Adds this replica's count of every open window to {@code localHits}.
+     */
+    public void collect(Map<RateLimitWindow, Long> localHits) {
+        windows.forEach((key, window) -> localHits.put(new RateLimitWindow(name, key, window.start), window.localHits.get()));
+    }
+
+    /**
+     * Takes the cluster totals returned for {@code published}: whatever exceeds this replica's own published count
+     * was admitted elsewhere.
+     */
+    public void apply(Map<RateLimitWindow, Long> published, Map<RateLimitWindow, Long> totals) {
+        windows.forEach((key, window) -> {
+            RateLimitWindow id = new RateLimitWindow(name, key, window.start);
+            Long own = published.get(id);
+            Long total = totals.get(id);
+            if (own != null && total != null) {
+                window.remoteHits = Math.max(0, total - own);
+            }
+        });
+    }
+
+    @Override
+    public void evictIdleKeys(long nowMillis) {
+        delegate.evictIdleKeys(nowMillis);
+        windows.values().removeIf(window -> window.start + windowMillis <= nowMillis);
+    }
+
+    @Override
+    public int trackedKeys() {
+        return delegate.trackedKeys();
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    private static final class Window {
+
+        private final long start;
+
+        private final AtomicLong localHits = new AtomicLong();
+
+        private volatile long remoteHits;
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
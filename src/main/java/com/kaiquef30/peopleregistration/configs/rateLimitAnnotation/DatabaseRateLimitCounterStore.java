@@ -0,0 +1,106 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import com.kaiquef30.peopleregistration.repositories.RateLimitCounterRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.RateLimitWindowTotal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the counters in the application database. Every replica owns its rows (keyed by a node id generated at
+ * startup) and overwrites them with absolute counts, so publishing needs neither upserts nor locks and a replica
+ * that restarts leaves its previous counts in place until their window ends. Only windows whose count changed since
+ * the last sync are written, and totals are read back for this replica's windows only.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate.store", havingValue = "database")
+public class DatabaseRateLimitCounterStore implements RateLimitCounterStore {
+
+    private static final int CLIENT_KEY_CHUNK = 500;
+
+    private final RateLimitCounterRepository rateLimitCounterRepository;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * The counts this replica last wrote, per window. Cleared when a publishing transaction does not commit, so the
+     * next sync writes every window again.
+     */
+    private final Map<RateLimitWindow, Long> published = new ConcurrentHashMap<>();
+
+    public DatabaseRateLimitCounterStore(RateLimitCounterRepository rateLimitCounterRepository) {
+        this.rateLimitCounterRepository = rateLimitCounterRepository;
+    }
+
+    @Transactional
+    @Override
+    public Map<RateLimitWindow, Long> publish(Map<RateLimitWindow, Long> localHits) {
+        if (localHits.isEmpty()) {
+            return Map.of();
+        }
+        published.keySet().retainAll(localHits.keySet());
+        clearPublishedUnlessCommitted();
+        long since = Long.MAX_VALUE;
+        Set<String> limiters = new HashSet<>();
+        Set<String> clientKeys = new HashSet<>();
+        for (Map.Entry<RateLimitWindow, Long> entry : localHits.entrySet()) {
+            RateLimitWindow window = entry.getKey();
+            if (!entry.getValue().equals(published.put(window, entry.getValue()))
+                    && rateLimitCounterRepository.updateHits(window.limiter(), window.clientKey(),
+                    window.windowStart(), nodeId, entry.getValue()) == 0) {
+                rateLimitCounterRepository.insertHits(window.limiter(), window.clientKey(), window.windowStart(),
+                        nodeId, entry.getValue());
+            }
+            since = Math.min(since, window.windowStart());
+            limiters.add(window.limiter());
+            clientKeys.add(window.clientKey());
+        }
+
+        Map<RateLimitWindow, Long> totals = new HashMap<>();
+        List<String> chunk = new ArrayList<>(Math.min(clientKeys.size(), CLIENT_KEY_CHUNK));
+        for (Iterator<String> iterator = clientKeys.iterator(); iterator.hasNext(); ) {
+            chunk.add(iterator.next());
+            if (chunk.size() == CLIENT_KEY_CHUNK || !iterator.hasNext()) {
+                for (RateLimitWindowTotal total : rateLimitCounterRepository.sumHitsSince(limiters, chunk, since)) {
+                    RateLimitWindow window = new RateLimitWindow(total.limiter(), total.clientKey(), total.windowStart());
+                    if (localHits.containsKey(window)) {
+                        totals.put(window, total.hits());
+                    }
+                }
+                chunk.clear();
+            }
+        }
+        return totals;
+    }
+
+    @Transactional
+    @Override
+    public void purgeWindowsBefore(long windowStart) {
+        rateLimitCounterRepository.deleteWindowsBefore(windowStart);
+    }
+
+    private void clearPublishedUnlessCommitted() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        published.clear();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -1,51 +0,0 @@
-package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
-
-import com.kaiquef30.peopleregistration.exceptions.ratelimit.RateLimitException;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-
-@Aspect
-@Component
-public class RateLimitAspect {
-
-    public static final String ERROR_MESSAGE = "To many request at endpoint %s from IP %s! Please try again after %d milliseconds!";
-    private final ConcurrentHashMap<String, List<Long>> requestCounts = new ConcurrentHashMap<>();
-
-    @Value("${APP_RATE_LIMIT:#{10}}")
-    private int rateLimit;
-
-    @Value("${APP_RATE_DURATIONINMS:#{60000}}")
-    private long rateDuration;
-
-
-    @Before("@annotation(com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.WithRateLimitProtection)")
-    public void rateLimit() {
-        final ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
-        final String key = requestAttributes.getRequest().getRemoteAddr();
-        final long currentTime = System.currentTimeMillis();
-        requestCounts.putIfAbsent(key, new ArrayList<>());
-        requestCounts.get(key).add(currentTime);
-        cleanUpRequestCounts(currentTime);
-        if (requestCounts.get(key).size() > rateLimit) {
-            throw new RateLimitException(String.format(ERROR_MESSAGE, requestAttributes.getRequest().getRequestURI(), key, rateDuration));
-        }
-    }
-
-    private void cleanUpRequestCounts(final long currentTime) {
-        requestCounts.values().forEach(l -> {
-            l.removeIf(t -> timeIsTooOld(currentTime, t));
-        });
-    }
-
-    private boolean timeIsTooOld(final long currentTime, final long timeToCheck) {
-        return currentTime - timeToCheck > rateDuration;
-    }
-}
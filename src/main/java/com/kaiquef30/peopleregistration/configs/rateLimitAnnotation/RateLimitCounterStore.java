@@ -0,0 +1,17 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import java.util.Map;
+
+/**
+ * Shares per-window request counts between the replicas of the application.
+ */
+public interface RateLimitCounterStore {
+
+    /**
+     * Records how many requests this replica admitted in each window so far and returns the cluster-wide totals
+     * of the same windows, this replica included.
+     */
+    Map<RateLimitWindow, Long> publish(Map<RateLimitWindow, Long> localHits);
+
+    void purgeWindowsBefore(long windowStart);
+}
@@ -0,0 +1,92 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Enforces {@link WithRateLimitProtection} ahead of every other filter and of the DispatcherServlet. A rejected
+ * request never reaches handler lookup or argument binding, and is answered with a status, a {@code Retry-After}
+ * header and a body that is the same bytes for every rejection: no exception, no formatting, no per-request log line.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.rate.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final byte[] REJECTION_BODY = ("{\"status\":429,\"error\":\"TOO_MANY_REQUESTS\"," +
+            "\"message\":\"Too many requests! Please try again after the time given in Retry-After.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimitPolicyRegistry rateLimitPolicyRegistry;
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+
+    private final RateLimitRejectionLog rejectionLog;
+
+    private volatile RateLimitPathTable pathTable;
+
+    public RateLimitFilter(RateLimitPolicyRegistry rateLimitPolicyRegistry,
+                           @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping,
+                           RateLimitRejectionLog rejectionLog) {
+        this.rateLimitPolicyRegistry = rateLimitPolicyRegistry;
+        this.handlerMapping = handlerMapping;
+        this.rejectionLog = rejectionLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitPolicy policy = pathTable().find(request);
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = policy.resolveKey(request);
+        long retryAfter = policy.tryAcquire(key, System.currentTimeMillis());
+        if (retryAfter <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejectionLog.record(policy.getEndpoint(), key, request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((retryAfter + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(REJECTION_BODY.length);
+        response.getOutputStream().write(REJECTION_BODY);
+    }
+
+    /**
+     * Built on the first request rather than at startup, when the handler mapping may not have been initialized yet.
+     */
+    private RateLimitPathTable pathTable() {
+        RateLimitPathTable table = pathTable;
+        if (table == null) {
+            synchronized (this) {
+                table = pathTable;
+                if (table == null) {
+                    table = new RateLimitPathTable(handlerMapping.getObject().getHandlerMethods(),
+                            rateLimitPolicyRegistry::getPolicy);
+                    pathTable = table;
+                }
+            }
+        }
+        return table;
+    }
+}
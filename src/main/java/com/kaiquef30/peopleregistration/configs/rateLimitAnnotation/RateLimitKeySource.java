@@ -0,0 +1,10 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+public enum RateLimitKeySource {
+
+    IP,
+
+    HEADER,
+
+    PRINCIPAL
+}
@@ -0,0 +1,121 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
+import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the rate limit policy of a request from its method and path alone, without running Spring MVC's handler
+ * lookup. Built once from the request mappings: paths without variables sit in a hash map, the others are tried in
+ * order of specificity. Every mapping is included, limited or not, so that e.g. {@code /api/people/search} is never
+ * taken for {@code /api/people/{id}}. Mappings sharing a path and method are told apart by their {@code produces}.
+ */
+public class RateLimitPathTable {
+
+    private static final String ANY_METHOD = "*";
+
+    private final Map<String, Map<String, List<Candidate>>> literalPaths = new HashMap<>();
+
+    private final List<PatternEntry> patterns = new ArrayList<>();
+
+    public RateLimitPathTable(Map<RequestMappingInfo, HandlerMethod> handlerMethods,
+                              Function<Method, RateLimitPolicy> policies) {
+        Map<PathPattern, Map<String, List<Candidate>>> byPattern = new LinkedHashMap<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+            if (pathPatterns == null) {
+                return;
+            }
+            RateLimitPolicy policy = handlerMethod.hasMethodAnnotation(WithRateLimitProtection.class)
+                    ? policies.apply(handlerMethod.getMethod()) : null;
+            Candidate candidate = new Candidate(info.getProducesCondition(), policy);
+            Set<String> methods = info.getMethodsCondition().getMethods().isEmpty() ? Set.of(ANY_METHOD)
+                    : info.getMethodsCondition().getMethods().stream().map(Enum::name).collect(Collectors.toSet());
+            for (PathPattern pattern : pathPatterns.getPatterns()) {
+                Map<String, List<Candidate>> byMethod = pattern.hasPatternSyntax()
+                        ? byPattern.computeIfAbsent(pattern, p -> new HashMap<>())
+                        : literalPaths.computeIfAbsent(pattern.getPatternString(), p -> new HashMap<>());
+                methods.forEach(method -> byMethod.computeIfAbsent(method, m -> new ArrayList<>(1)).add(candidate));
+            }
+        });
+        byPattern.forEach((pattern, byMethod) -> patterns.add(new PatternEntry(pattern, byMethod)));
+        patterns.sort(Comparator.comparing(PatternEntry::pattern, PathPattern.SPECIFICITY_COMPARATOR));
+    }
+
+    /**
+     * @return the policy of the handler the request would reach, or {@code null} if that handler is not rate limited
+     * or there is none
+     */
+    public RateLimitPolicy find(HttpServletRequest request) {
+        PathContainer pathContainer = ServletRequestPathUtils.parseAndCache(request).pathWithinApplication();
+        String method = request.getMethod();
+
+        List<Candidate> candidates = forMethod(literalPaths.get(valueToMatch(pathContainer)), method);
+        if (candidates == null && !patterns.isEmpty()) {
+            for (PatternEntry entry : patterns) {
+                if (entry.pattern().matches(pathContainer)) {
+                    candidates = forMethod(entry.byMethod(), method);
+                    if (candidates != null) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (candidates == null) {
+            return null;
+        }
+        if (candidates.size() > 1) {
+            for (Candidate candidate : candidates) {
+                if (candidate.produces().getMatchingCondition(request) != null) {
+                    return candidate.policy();
+                }
+            }
+        }
+        return candidates.get(0).policy();
+    }
+
+    /**
+     * The path as Spring MVC matches it: segments decoded and without their {@code ;} parameters, so neither can
+     * steer a request away from the limits of the handler it reaches.
+     */
+    private static String valueToMatch(PathContainer path) {
+        StringBuilder value = new StringBuilder(path.value().length());
+        for (PathContainer.Element element : path.elements()) {
+            value.append(element instanceof PathContainer.PathSegment segment ? segment.valueToMatch() : element.value());
+        }
+        return value.toString();
+    }
+
+    private static List<Candidate> forMethod(Map<String, List<Candidate>> byMethod, String method) {
+        if (byMethod == null) {
+            return null;
+        }
+        List<Candidate> candidates = byMethod.get(method);
+        if (candidates == null && "HEAD".equals(method)) {
+            candidates = byMethod.get("GET");
+        }
+        return candidates != null ? candidates : byMethod.get(ANY_METHOD);
+    }
+
+    private record Candidate(ProducesRequestCondition produces, RateLimitPolicy policy) {
+    }
+
+    private record PatternEntry(PathPattern pattern, Map<String, List<Candidate>> byMethod) {
+    }
+}
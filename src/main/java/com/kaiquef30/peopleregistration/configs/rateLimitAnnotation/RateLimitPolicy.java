@@ -0,0 +1,74 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.security.Principal;
+
+public class RateLimitPolicy {
+
+    private final String endpoint;
+
+    private final RateLimiter rateLimiter;
+
+    private final RateLimitKeySource keySource;
+
+    private final String header;
+
+    private final Counter allowed;
+
+    private final Counter denied;
+
+    public RateLimitPolicy(String endpoint, RateLimiter rateLimiter, RateLimitKeySource keySource, String header,
+                           Counter allowed, Counter denied) {
+        if (keySource == RateLimitKeySource.HEADER && header.isBlank()) {
+            throw new IllegalArgumentException("A header name is required when the rate limit key source is HEADER");
+        }
+        this.endpoint = endpoint;
+        this.rateLimiter = rateLimiter;
+        this.keySource = keySource;
+        this.header = header;
+        this.allowed = allowed;
+        this.denied = denied;
+    }
+
+    public long tryAcquire(String key, long nowMillis) {
+        long retryAfter = rateLimiter.tryAcquire(key, nowMillis);
+        if (retryAfter > 0) {
+            denied.increment();
+        } else {
+            allowed.increment();
+        }
+        return retryAfter;
+    }
+
+    public String resolveKey(HttpServletRequest request) {
+        switch (keySource) {
+            case HEADER -> {
+                String value = request.getHeader(header);
+                if (value != null) {
+                    return value;
+                }
+            }
+            case PRINCIPAL -> {
+                Principal principal = request.getUserPrincipal();
+                if (principal != null) {
+                    return principal.getName();
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public RateLimitKeySource getKeySource() {
+        return keySource;
+    }
+}
@@ -0,0 +1,151 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RateLimitPolicyRegistry {
+
+    private final ConcurrentHashMap<Method, RateLimitPolicy> policiesByMethod = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, RateLimitPolicy> policies = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, WithRateLimitProtection> definitions = new ConcurrentHashMap<>();
+
+    private final int rateLimit;
+
+    private final long rateDuration;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RateLimitCounterStore counterStore;
+
+    private final AtomicLong longestWindow = new AtomicLong();
+
+    public RateLimitPolicyRegistry(@Value("${APP_RATE_LIMIT:#{10}}") int rateLimit,
+                                   @Value("${APP_RATE_DURATIONINMS:#{60000}}") long rateDuration,
+                                   MeterRegistry meterRegistry, Optional<RateLimitCounterStore> counterStore) {
+        this.rateLimit = rateLimit;
+        this.rateDuration = rateDuration;
+        this.meterRegistry = meterRegistry;
+        this.counterStore = counterStore.orElse(null);
+    }
+
+    public RateLimitPolicy getPolicy(Method method) {
+        RateLimitPolicy policy = policiesByMethod.get(method);
+        if (policy == null) {
+            policy = policiesByMethod.computeIfAbsent(method, this::resolvePolicy);
+        }
+        return policy;
+    }
+
+    public void evictIdleKeys(long nowMillis) {
+        policies.values().forEach(policy -> policy.getRateLimiter().evictIdleKeys(nowMillis));
+        if (counterStore != null && longestWindow.get() > 0) {
+            counterStore.purgeWindowsBefore(nowMillis - 2 * longestWindow.get());
+        }
+    }
+
+    /**
+     * Exchanges the request counts of every clustered limiter with the other replicas in a single store call.
+     */
+    public void synchronize() {
+        if (counterStore == null) {
+            return;
+        }
+        Map<RateLimitWindow, Long> localHits = new HashMap<>();
+        for (RateLimitPolicy policy : policies.values()) {
+            if (policy.getRateLimiter() instanceof ClusterRateLimiter clusterRateLimiter) {
+                clusterRateLimiter.collect(localHits);
+            }
+        }
+        if (localHits.isEmpty()) {
+            return;
+        }
+        Map<RateLimitWindow, Long> totals = counterStore.publish(localHits);
+        for (RateLimitPolicy policy : policies.values()) {
+            if (policy.getRateLimiter() instanceof ClusterRateLimiter clusterRateLimiter) {
+                clusterRateLimiter.apply(localHits, totals);
+            }
+        }
+    }
+
+    public boolean isClustered() {
+        return counterStore != null;
+    }
+
+    public long getRateDuration() {
+        return rateDuration;
+    }
+
+    /**
+     * Methods naming the same {@link WithRateLimitProtection#policy()} resolve to one shared policy; the others are
+     * named after their class and method.
+     */
+    private RateLimitPolicy resolvePolicy(Method method) {
+        WithRateLimitProtection annotation = AnnotatedElementUtils.findMergedAnnotation(method, WithRateLimitProtection.class);
+        if (annotation == null) {
+            throw new IllegalStateException("Method is not annotated with @WithRateLimitProtection: " + method);
+        }
+        String endpoint = annotation.policy().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName() : annotation.policy();
+        WithRateLimitProtection definition = definitions.putIfAbsent(endpoint, annotation);
+        if (definition != null && !definition.equals(annotation)) {
+            throw new IllegalStateException("Rate limit policy " + endpoint + " is declared with different limits on " + method);
+        }
+        return policies.computeIfAbsent(endpoint, name -> createPolicy(name, annotation));
+    }
+
+    private RateLimitPolicy createPolicy(String endpoint, WithRateLimitProtection annotation) {
+        RateLimiter rateLimiter = createRateLimiter(endpoint, annotation);
+        Gauge.builder("ratelimit.tracked.keys", rateLimiter, RateLimiter::trackedKeys)
+                .description("Client keys currently tracked by the rate limiter")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return new RateLimitPolicy(endpoint, rateLimiter, annotation.key(), annotation.header(),
+                requestCounter(endpoint, "allowed"), requestCounter(endpoint, "denied"));
+    }
+
+    private Counter requestCounter(String endpoint, String outcome) {
+        return Counter.builder("ratelimit.requests")
+                .description("Requests checked by the rate limiter")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * With a counter store the local limiter is wrapped in a {@link ClusterRateLimiter}. The cluster cap is the
+     * sliding-window limit per window, or for a token bucket a full bucket ({@code capacity + burst}) per refill
+     * period.
+     */
+    private RateLimiter createRateLimiter(String endpoint, WithRateLimitProtection annotation) {
+        if (annotation.capacity() <= 0) {
+            return clustered(endpoint, new SlidingWindowRateLimiter(rateLimit, rateDuration), rateDuration, rateLimit);
+        }
+        int refillTokens = annotation.refillTokens() > 0 ? annotation.refillTokens() : annotation.capacity();
+        long refillPeriod = annotation.refillPeriodMs() > 0 ? annotation.refillPeriodMs() : rateDuration;
+        return clustered(endpoint,
+                new TokenBucketRateLimiter(annotation.capacity(), refillTokens, refillPeriod, annotation.burst()),
+                refillPeriod, (long) annotation.capacity() + annotation.burst());
+    }
+
+    private RateLimiter clustered(String endpoint, RateLimiter rateLimiter, long windowMillis, long windowLimit) {
+        if (counterStore == null) {
+            return rateLimiter;
+        }
+        longestWindow.accumulateAndGet(windowMillis, Math::max);
+        return new ClusterRateLimiter(endpoint, rateLimiter, windowMillis, windowLimit);
+    }
+}
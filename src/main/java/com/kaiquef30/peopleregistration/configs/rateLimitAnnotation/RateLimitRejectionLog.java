@@ -0,0 +1,54 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates rejected requests per endpoint and logs one line per endpoint and interval, with the first rejected
+ * client of the interval as a sample. Recording a rejection is a counter increment; only the first rejection of an
+ * interval allocates.
+ */
+@Component
+public class RateLimitRejectionLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimitRejectionLog.class);
+
+    private final ConcurrentHashMap<String, Rejections> rejections = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, String key, String path) {
+        Rejections endpointRejections = rejections.get(endpoint);
+        if (endpointRejections == null) {
+            endpointRejections = rejections.computeIfAbsent(endpoint, e -> new Rejections());
+        }
+        endpointRejections.count.increment();
+        if (endpointRejections.sample == null) {
+            endpointRejections.sample = new Sample(key, path);
+        }
+    }
+
+    public void flush(long intervalMillis) {
+        rejections.forEach((endpoint, endpointRejections) -> {
+            long count = endpointRejections.count.sumThenReset();
+            Sample sample = endpointRejections.sample;
+            endpointRejections.sample = null;
+            if (count > 0) {
+                LOG.warn("Rejected {} requests to {} in the last {} ms (e.g. {} from {})", count, endpoint,
+                        intervalMillis, sample != null ? sample.path() : "?", sample != null ? sample.key() : "?");
+            }
+        });
+    }
+
+    private static class Rejections {
+
+        private final LongAdder count = new LongAdder();
+
+        private volatile Sample sample;
+    }
+
+    private record Sample(String key, String path) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+/**
+ * A fixed counting window of one client on one rate-limited endpoint.
+ */
+public record RateLimitWindow(String limiter, String clientKey, long windowStart) {
+}
@@ -0,0 +1,13 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+public interface RateLimiter {
+
+    /**
+     * @return {@code 0} when the request is allowed, otherwise how many milliseconds the caller should wait
+     */
+    long tryAcquire(String key, long nowMillis);
+
+    void evictIdleKeys(long nowMillis);
+
+    int trackedKeys();
+}
@@ -0,0 +1,48 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class RateLimiterConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiterConfiguration.class);
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService rateLimitEvictionExecutor(RateLimitPolicyRegistry rateLimitPolicyRegistry,
+                                                              RateLimitRejectionLog rejectionLog,
+                                                              @Value("${app.rate.sync-interval-ms:1000}") long syncInterval,
+                                                              @Value("${app.rate.rejection-log-interval-ms:10000}") long logInterval) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = rateLimitPolicyRegistry.getRateDuration();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                rateLimitPolicyRegistry.evictIdleKeys(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                LOG.warn("Could not evict idle rate limit keys", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        executor.scheduleAtFixedRate(() -> rejectionLog.flush(logInterval), logInterval, logInterval, TimeUnit.MILLISECONDS);
+        if (rateLimitPolicyRegistry.isClustered()) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    rateLimitPolicyRegistry.synchronize();
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not synchronize rate limit counters; limiting with local counts only", e);
+                }
+            }, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+        return executor;
+    }
+}
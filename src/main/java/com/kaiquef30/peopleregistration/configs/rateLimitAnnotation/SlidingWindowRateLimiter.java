@@ -0,0 +1,99 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window counter per key. The window index and the previous/current counts are packed into a single
+ * {@link AtomicLong}, so each request costs one map lookup and one CAS regardless of how many keys are tracked.
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+    static final int MAX_LIMIT = 0xFFFE;
+
+    private static final long WINDOW_MASK = 0xFFFFFFFFL;
+    private static final int COUNT_MASK = 0xFFFF;
+
+    private final ConcurrentHashMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+
+    private final int limit;
+
+    private final long windowMillis;
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Rate limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        if (windowMillis < 1) {
+            throw new IllegalArgumentException("Rate window must be positive: " + windowMillis);
+        }
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public long tryAcquire(String key, long nowMillis) {
+        AtomicLong state = windows.get(key);
+        if (state == null) {
+            state = windows.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        final long window = nowMillis / windowMillis;
+        final long remaining = windowMillis - (nowMillis - window * windowMillis);
+
+        while (true) {
+            final long current = state.get();
+            final long stateWindow = current >>> 32;
+            final int previous;
+            final int count;
+            if (stateWindow == (window & WINDOW_MASK)) {
+                previous = (int) (current >>> 16) & COUNT_MASK;
+                count = (int) current & COUNT_MASK;
+            } else if (stateWindow == ((window - 1) & WINDOW_MASK)) {
+                previous = (int) current & COUNT_MASK;
+                count = 0;
+            } else {
+                previous = 0;
+                count = 0;
+            }
+
+            if (previous * remaining + count * windowMillis >= limit * windowMillis) {
+                return retryAfter(previous, count, remaining);
+            }
+
+            final long next = ((window & WINDOW_MASK) << 32) | ((long) previous << 16) | (count + 1);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long retryAfter(int previous, int count, long remaining) {
+        if (count >= limit) {
+            return remaining + windowMillis - limit * windowMillis / count + 1;
+        }
+        return Math.max(1, remaining - (limit - count) * windowMillis / previous + 1);
+    }
+
+    @Override
+    public void evictIdleKeys(long nowMillis) {
+        final long window = nowMillis / windowMillis;
+        windows.values().removeIf(state -> {
+            final long stateWindow = state.get() >>> 32;
+            return stateWindow != (window & WINDOW_MASK) && stateWindow != ((window - 1) & WINDOW_MASK);
+        });
+    }
+
+    @Override
+    public int trackedKeys() {
+        return windows.size();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket implemented as a generic cell rate algorithm: each key only stores the theoretical arrival time of
+ * its next request, which is advanced with a single CAS.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    private final long emissionIntervalNanos;
+
+    private final long toleranceNanos;
+
+    public TokenBucketRateLimiter(int capacity, int refillTokens, long refillPeriodMillis, int burst) {
+        if (capacity < 1 || refillTokens < 1 || refillPeriodMillis < 1 || burst < 0) {
+            throw new IllegalArgumentException("Invalid token bucket: capacity=" + capacity + ", refillTokens="
+                    + refillTokens + ", refillPeriodMs=" + refillPeriodMillis + ", burst=" + burst);
+        }
+        this.emissionIntervalNanos = Math.max(1, refillPeriodMillis * NANOS_PER_MILLI / refillTokens);
+        this.toleranceNanos = emissionIntervalNanos * ((long) capacity + burst);
+    }
+
+    @Override
+    public long tryAcquire(String key, long nowMillis) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        final long now = nowMillis * NANOS_PER_MILLI;
+        while (true) {
+            final long current = arrival.get();
+            final long next = Math.max(current, now) + emissionIntervalNanos;
+            final long excess = next - now - toleranceNanos;
+            if (excess > 0) {
+                return (excess + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void evictIdleKeys(long nowMillis) {
+        final long now = nowMillis * NANOS_PER_MILLI;
+        arrivals.values().removeIf(arrival -> arrival.get() <= now);
+    }
+
+    @Override
+    public int trackedKeys() {
+        return arrivals.size();
+    }
+}
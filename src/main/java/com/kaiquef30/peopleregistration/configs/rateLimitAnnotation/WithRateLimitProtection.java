@@ -5,7 +5,30 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Rate limits the annotated endpoint with its own budget. Without a {@link #capacity()} the endpoint uses a
+ * sliding window of {@code APP_RATE_LIMIT} requests per {@code APP_RATE_DURATIONINMS}; otherwise it uses a token
+ * bucket holding {@code capacity + burst} tokens that refills {@link #refillTokens()} every
+ * {@link #refillPeriodMs()}.
+ * <p>
+ * Each annotated method gets its own budget unless it names a {@link #policy()}: methods naming the same policy,
+ * such as one mapping split per response media type, share one budget and must declare the same limits.
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface WithRateLimitProtection {
+
+    String policy() default "";
+
+    int capacity() default 0;
+
+    int refillTokens() default 0;
+
+    long refillPeriodMs() default 0;
+
+    int burst() default 0;
+
+    RateLimitKeySource key() default RateLimitKeySource.IP;
+
+    String header() default "";
 }
@@ -2,13 +2,26 @@ package com.kaiquef30.peopleregistration.domains;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "tb_address")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Address.CACHE_REGION)
+@Table(name = "tb_address", indexes = {
+        @Index(name = "ix_address_cep", columnList = "cep"),
+        @Index(name = "ix_address_state_city", columnList = "state, city"),
+        @Index(name = "ix_address_person", columnList = "person_id")})
 public class Address {
 
+    public static final String CACHE_REGION = "address";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_id_generator")
+    @SequenceGenerator(name = "address_id_generator", sequenceName = "tb_address_seq", allocationSize = 50)
     @JsonIgnore
     private Long id;
 
@@ -28,6 +41,18 @@ public class Address {
 
     private boolean isMainAddress;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public boolean isMainAddress() {
         return isMainAddress;
     }
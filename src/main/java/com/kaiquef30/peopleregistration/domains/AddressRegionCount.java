@@ -0,0 +1,91 @@
+package com.kaiquef30.peopleregistration.domains;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Running totals of addresses and distinct people per city. Rows whose {@code city} is empty hold the totals for
+ * the whole state, where a person with addresses in several cities of the state is counted once.
+ */
+@Entity
+@IdClass(AddressRegionCount.Key.class)
+@Table(name = "tb_address_region_counts")
+public class AddressRegionCount {
+
+    public static final String WHOLE_STATE = "";
+
+    @Id
+    private String state;
+
+    @Id
+    private String city;
+
+    private long addresses;
+
+    private long people;
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public long getAddresses() {
+        return addresses;
+    }
+
+    public void setAddresses(long addresses) {
+        this.addresses = addresses;
+    }
+
+    public long getPeople() {
+        return people;
+    }
+
+    public void setPeople(long people) {
+        this.people = people;
+    }
+
+    public static class Key implements Serializable {
+
+        private String state;
+
+        private String city;
+
+        public Key() {
+        }
+
+        public Key(String state, String city) {
+            this.state = state;
+            this.city = city;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(state, key.state) && Objects.equals(city, key.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(state, city);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.kaiquef30.peopleregistration.domains;
+
+import com.kaiquef30.peopleregistration.audit.ChangeAction;
+import com.kaiquef30.peopleregistration.audit.ChangeSubject;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Append-only row of the change log. Ids come from a sequence with a large allocation size so a batch of entries is
+ * inserted with JDBC batching and without a round trip per id.
+ */
+@Entity
+@Table(name = "tb_change_log", indexes = @Index(name = "ix_change_log_subject", columnList = "subject, entityId"))
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_id_generator")
+    @SequenceGenerator(name = "change_log_id_generator", sequenceName = "tb_change_log_seq", allocationSize = 500)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeSubject subject;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeAction action;
+
+    private long entityId;
+
+    private Long personId;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(ChangeSubject subject, ChangeAction action, long entityId, Long personId, Instant occurredAt) {
+        this.subject = subject;
+        this.action = action;
+        this.entityId = entityId;
+        this.personId = personId;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ChangeSubject getSubject() {
+        return subject;
+    }
+
+    public ChangeAction getAction() {
+        return action;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -1,20 +1,36 @@
 package com.kaiquef30.peopleregistration.domains;
 
+import com.kaiquef30.peopleregistration.search.SearchText;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tb_people")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Person.CACHE_REGION)
+@Table(name = "tb_people", uniqueConstraints = @UniqueConstraint(name = Person.EMAIL_CONSTRAINT, columnNames = "email"))
 public class Person {
 
+    public static final String CACHE_REGION = "person";
+
+    public static final String EMAIL_CONSTRAINT = "uk_people_email";
+
+    public static final String ADDRESS_CACHE_REGION = "person.address";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_id_generator")
+    @SequenceGenerator(name = "person_id_generator", sequenceName = "tb_people_seq", allocationSize = 50)
     private Long id;
 
     private String fullName;
@@ -23,13 +39,25 @@ public class Person {
 
     private LocalDate birthDate;
 
+    @Column(length = 512)
+    private String searchKey;
+
     @OneToMany(mappedBy = "person", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Person.ADDRESS_CACHE_REGION)
     private List<Address> address = new ArrayList<>();
 
     @CreationTimestamp
     private LocalDate createdAt;
 
-    @UpdateTimestamp
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    /**
+     * Changes whenever the person's representation does, including changes to its addresses. Kept at microsecond
+     * precision so the value held in memory is exactly what the database stores.
+     */
     private LocalDateTime modifiedAt;
 
     public LocalDate getCreatedAt() {
@@ -40,6 +68,14 @@ public class Person {
         this.createdAt = createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getModifiedAt() {
         return modifiedAt;
     }
@@ -80,6 +116,51 @@ public class Person {
         this.birthDate = birthDate;
     }
 
+    public String getSearchKey() {
+        return searchKey;
+    }
+
+    @PrePersist
+    void onPersist() {
+        refreshSearchKey();
+        if (modifiedAt == null) {
+            touch();
+        }
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        refreshSearchKey();
+        touch();
+    }
+
+    public void refreshSearchKey() {
+        searchKey = SearchText.normalize(fullName + " " + email);
+    }
+
+    /**
+     * Moves {@link #getModifiedAt()} forward, by at least one microsecond.
+     */
+    public void touch() {
+        LocalDateTime now = now();
+        modifiedAt = modifiedAt != null && !now.isAfter(modifiedAt) ? modifiedAt.plus(1, ChronoUnit.MICROS) : now;
+    }
+
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public static long toEpochMicros(LocalDateTime modifiedAt) {
+        if (modifiedAt == null) {
+            return 0;
+        }
+        return modifiedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + modifiedAt.getNano() / 1_000;
+    }
+
+    public long countMainAddresses() {
+        return address.stream().filter(Address::isMainAddress).count();
+    }
+
     public List<Address> getAddress() {
         return address;
     }
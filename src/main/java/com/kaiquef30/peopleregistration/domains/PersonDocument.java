@@ -0,0 +1,80 @@
+package com.kaiquef30.peopleregistration.domains;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A person with its addresses, pre-rendered as the JSON body of a single-person read minus the request-dependent
+ * links. Kept as bytes rather than {@code jsonb}, which would reorder the keys and need re-rendering on every read.
+ */
+@Entity
+@Table(name = "tb_person_documents")
+public class PersonDocument implements Persistable<Long> {
+
+    /**
+     * The layout documents are rendered in now. Bumped whenever the representation changes, so documents in an older
+     * layout are never served and are rendered again at startup.
+     */
+    public static final int CURRENT_FORMAT = 1;
+
+    @Id
+    private Long personId;
+
+    /**
+     * The person's version, in epoch microseconds of its modification time, when the document was rendered.
+     */
+    private long version;
+
+    @ColumnDefault("0")
+    private int format;
+
+    @Column(nullable = false, length = 1_048_576)
+    private byte[] document;
+
+    @Transient
+    private boolean isNew;
+
+    public PersonDocument() {
+    }
+
+    public PersonDocument(Long personId, long version, byte[] document) {
+        this.personId = personId;
+        this.version = version;
+        this.format = CURRENT_FORMAT;
+        this.document = document;
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Long getId() {
+        return personId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getFormat() {
+        return format;
+    }
+
+    public byte[] getDocument() {
+        return document;
+    }
+}
@@ -0,0 +1,109 @@
+package com.kaiquef30.peopleregistration.domains;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Requests one replica admitted for a client of a rate-limited endpoint during a fixed window. Each replica only
+ * writes its own rows, so the cluster-wide count of a window is the sum over {@code nodeId}.
+ */
+@Entity
+@IdClass(RateLimitCounter.Key.class)
+@Table(name = "tb_rate_limit_counters", indexes = @Index(name = "ix_rate_limit_window", columnList = "windowStart"))
+public class RateLimitCounter {
+
+    @Id
+    private String limiter;
+
+    @Id
+    private String clientKey;
+
+    @Id
+    private long windowStart;
+
+    @Id
+    @Column(length = 36)
+    private String nodeId;
+
+    private long hits;
+
+    public String getLimiter() {
+        return limiter;
+    }
+
+    public void setLimiter(String limiter) {
+        this.limiter = limiter;
+    }
+
+    public String getClientKey() {
+        return clientKey;
+    }
+
+    public void setClientKey(String clientKey) {
+        this.clientKey = clientKey;
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(long windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public static class Key implements Serializable {
+
+        private String limiter;
+
+        private String clientKey;
+
+        private long windowStart;
+
+        private String nodeId;
+
+        public Key() {
+        }
+
+        public Key(String limiter, String clientKey, long windowStart, String nodeId) {
+            this.limiter = limiter;
+            this.clientKey = clientKey;
+            this.windowStart = windowStart;
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return windowStart == key.windowStart && Objects.equals(limiter, key.limiter)
+                    && Objects.equals(clientKey, key.clientKey) && Objects.equals(nodeId, key.nodeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(limiter, clientKey, windowStart, nodeId);
+        }
+    }
+}
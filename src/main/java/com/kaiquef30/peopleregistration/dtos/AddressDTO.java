@@ -12,9 +12,16 @@ import org.springframework.hateoas.server.core.Relation;
 @Schema(hidden = true)
 public class AddressDTO extends RepresentationModel<AddressDTO> {
 
-    @JsonIgnore
+    /**
+     * Written in every person and address response. In a person's PUT or PATCH it picks the existing address to
+     * update, and an address without it is created; any other request ignores it, and it is never written to an
+     * address.
+     */
     private Long id;
 
+    @JsonIgnore
+    private Long version;
+
     @NotNull
     @NotBlank
     @Schema(description = "Your street", example = "Rua das flores")
@@ -51,6 +58,14 @@ public class AddressDTO extends RepresentationModel<AddressDTO> {
         isMainAddress = mainAddress;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,70 @@
+package com.kaiquef30.peopleregistration.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRegistrationItemDTO {
+
+    private int index;
+
+    private String email;
+
+    private BulkRegistrationStatus status;
+
+    private Long id;
+
+    private List<String> errors;
+
+    public BulkRegistrationItemDTO() {
+    }
+
+    public BulkRegistrationItemDTO(int index, String email, BulkRegistrationStatus status, Long id, List<String> errors) {
+        this.index = index;
+        this.email = email;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public BulkRegistrationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BulkRegistrationStatus status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kaiquef30.peopleregistration.dtos;
+
+import java.util.List;
+
+public class BulkRegistrationResultDTO {
+
+    private int created;
+
+    private int conflicts;
+
+    private int invalid;
+
+    private List<BulkRegistrationItemDTO> items;
+
+    public BulkRegistrationResultDTO() {
+    }
+
+    public BulkRegistrationResultDTO(List<BulkRegistrationItemDTO> items) {
+        this.items = items;
+        for (BulkRegistrationItemDTO item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> created++;
+                case CONFLICT -> conflicts++;
+                case INVALID -> invalid++;
+            }
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(int conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(int invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<BulkRegistrationItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BulkRegistrationItemDTO> items) {
+        this.items = items;
+    }
+}
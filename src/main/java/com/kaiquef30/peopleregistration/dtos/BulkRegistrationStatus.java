@@ -0,0 +1,10 @@
+package com.kaiquef30.peopleregistration.dtos;
+
+public enum BulkRegistrationStatus {
+
+    CREATED,
+
+    CONFLICT,
+
+    INVALID
+}
@@ -1,6 +1,7 @@
 package com.kaiquef30.peopleregistration.dtos;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -11,6 +12,7 @@ import org.springframework.hateoas.server.core.Relation;
 import java.time.LocalDate;
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Relation(collectionRelation = "personList")
 @Schema(hidden = true)
 public class PersonDTO extends RepresentationModel<PersonDTO> {
@@ -18,6 +20,9 @@ public class PersonDTO extends RepresentationModel<PersonDTO> {
     @JsonIgnore
     private Long id;
 
+    @JsonIgnore
+    private Long version;
+
     @NotNull
     @NotBlank
     @Schema(description = "Your full name", example = "Maria Drummond Rodrigues")
@@ -46,6 +51,14 @@ public class PersonDTO extends RepresentationModel<PersonDTO> {
     }
 
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,83 @@
+package com.kaiquef30.peopleregistration.dtos;
+
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The person fields a client can ask for with {@code fields=}. The name is both the JSON property and the
+ * {@code Person} attribute it is read from.
+ */
+public enum PersonField {
+
+    FULL_NAME("fullName"),
+    EMAIL("email"),
+    BIRTH_DATE("birthDate"),
+    ADDRESS("address");
+
+    private final String fieldName;
+
+    PersonField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Parses a comma separated list such as {@code fullName,email}. A missing or blank list selects every field.
+     */
+    public static Set<PersonField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(PersonField.class);
+        }
+        Set<PersonField> selected = EnumSet.noneOf(PersonField.class);
+        for (String name : fields.split(",")) {
+            selected.add(of(name.trim()));
+        }
+        return selected;
+    }
+
+    public static boolean isAll(Set<PersonField> fields) {
+        return fields.size() == values().length;
+    }
+
+    /**
+     * The scalar {@code Person} attributes behind the selected fields. The address collection is not one of them.
+     */
+    public static List<String> attributesOf(Set<PersonField> fields) {
+        List<String> attributes = new ArrayList<>(fields.size());
+        for (PersonField field : fields) {
+            if (field != ADDRESS) {
+                attributes.add(field.fieldName);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * A stable name for the selection, in declaration order, used to tell narrowed representations apart.
+     */
+    public static String variantOf(Set<PersonField> fields) {
+        StringJoiner variant = new StringJoiner(",");
+        for (PersonField field : fields) {
+            variant.add(field.fieldName);
+        }
+        return variant.toString();
+    }
+
+    private static PersonField of(String name) {
+        for (PersonField field : values()) {
+            if (field.fieldName.equals(name)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Campo desconhecido em fields: '" + name
+                + "'. Os campos aceitos são fullName, email, birthDate e address");
+    }
+}
@@ -0,0 +1,57 @@
+package com.kaiquef30.peopleregistration.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegionCountDTO {
+
+    private String state;
+
+    private String city;
+
+    private long addresses;
+
+    private long people;
+
+    public RegionCountDTO() {
+    }
+
+    public RegionCountDTO(String state, String city, long addresses, long people) {
+        this.state = state;
+        this.city = city;
+        this.addresses = addresses;
+        this.people = people;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public long getAddresses() {
+        return addresses;
+    }
+
+    public void setAddresses(long addresses) {
+        this.addresses = addresses;
+    }
+
+    public long getPeople() {
+        return people;
+    }
+
+    public void setPeople(long people) {
+        this.people = people;
+    }
+}
@@ -0,0 +1,8 @@
+package com.kaiquef30.peopleregistration.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -1,18 +0,0 @@
-package com.kaiquef30.peopleregistration.exceptions.ratelimit;
-
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
-
-@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
-public class RateLimitException extends RuntimeException{
-
-    public RateLimitException(final String message) {
-        super(message);
-    }
-
-    public ApiErrorMessage toApiErrorMessage(final String path) {
-        return new ApiErrorMessage(HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS.name(),
-                this.getMessage(), path);
-    }
-
-}
@@ -0,0 +1,261 @@
+package com.kaiquef30.peopleregistration.index;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory membership index of registered emails, used to skip the database lookup when an email is definitely
+ * not registered. Emails are normalized (trimmed, lower-cased) and stored as 64-bit hashes in a sharded
+ * open-addressing set, about 16 bytes per email at the target load factor.
+ * <p>
+ * A negative answer is only trusted once {@link EmailIndexWarmer} has loaded the table; until then every lookup
+ * reports a possible match. Hash collisions and case variants can only produce false positives, which fall through
+ * to the database check, and the unique index on {@code tb_people.email} remains the source of truth for anything
+ * the index gets wrong.
+ */
+@Component
+public class EmailIndex {
+
+    private static final int SHARD_BITS = 6;
+
+    private static final int SHARD_COUNT = 1 << SHARD_BITS;
+
+    private static final int INITIAL_SHARD_CAPACITY = 64;
+
+    private static final long EMPTY = 0L;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+
+    private volatile boolean ready;
+
+    public EmailIndex() {
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Returns {@code false} only when the email is definitely not registered.
+     */
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+        long hash = hash(email);
+        return shardFor(hash).contains(hash);
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            long hash = hash(email);
+            shardFor(hash).add(hash);
+        }
+    }
+
+    public void remove(String email) {
+        if (email != null) {
+            long hash = hash(email);
+            shardFor(hash).remove(hash);
+        }
+    }
+
+    /**
+     * Removes the email once the surrounding transaction commits, so a rollback never leaves a registered email
+     * missing from the index.
+     */
+    public void removeAfterCommit(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(email);
+            }
+        });
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Bytes held by the hash tables, excluding object headers.
+     */
+    public long tableBytes() {
+        long bytes = 0;
+        for (Shard shard : shards) {
+            bytes += shard.capacity() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    static long hash(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    private Shard shardFor(long hash) {
+        return shards[(int) (hash >>> (Long.SIZE - SHARD_BITS))];
+    }
+
+    /**
+     * Linear-probing set of non-zero longs with backward-shift deletion. Reads are optimistic and fall back to a
+     * read lock only when they race with a writer.
+     */
+    private static final class Shard {
+
+        private final StampedLock lock = new StampedLock();
+
+        private long[] table = new long[INITIAL_SHARD_CAPACITY];
+
+        private int size;
+
+        boolean contains(long key) {
+            long stamp = lock.tryOptimisticRead();
+            boolean found = indexOf(table, key) >= 0;
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return indexOf(table, key) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void add(long key) {
+            long stamp = lock.writeLock();
+            try {
+                if ((size + 1) * 2 > table.length) {
+                    resize();
+                }
+                if (insert(table, key)) {
+                    size++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long key) {
+            long stamp = lock.writeLock();
+            try {
+                long[] keys = table;
+                int mask = keys.length - 1;
+                int hole = indexOf(keys, key);
+                if (hole < 0) {
+                    return;
+                }
+                int slot = hole;
+                while (true) {
+                    slot = (slot + 1) & mask;
+                    long candidate = keys[slot];
+                    if (candidate == EMPTY) {
+                        break;
+                    }
+                    int home = (int) candidate & mask;
+                    boolean homeBetween = hole <= slot
+                            ? hole < home && home <= slot
+                            : hole < home || home <= slot;
+                    if (!homeBetween) {
+                        keys[hole] = candidate;
+                        hole = slot;
+                    }
+                }
+                keys[hole] = EMPTY;
+                size--;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int capacity() {
+            long stamp = lock.readLock();
+            try {
+                return table.length;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void resize() {
+            long[] resized = new long[table.length * 2];
+            for (long key : table) {
+                if (key != EMPTY) {
+                    insert(resized, key);
+                }
+            }
+            table = resized;
+        }
+
+        private static int indexOf(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return slot;
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static boolean insert(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (true) {
+                long current = keys[slot];
+                if (current == key) {
+                    return false;
+                }
+                if (current == EMPTY) {
+                    keys[slot] = key;
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.kaiquef30.peopleregistration.index;
+
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Component
+public class EmailIndexWarmer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmailIndexWarmer.class);
+
+    private final PersonRepository personRepository;
+
+    private final EmailIndex emailIndex;
+
+    public EmailIndexWarmer(PersonRepository personRepository, EmailIndex emailIndex) {
+        this.personRepository = personRepository;
+        this.emailIndex = emailIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        long start = System.nanoTime();
+        try (Stream<String> emails = personRepository.streamAllEmails()) {
+            emails.forEach(emailIndex::add);
+        }
+        emailIndex.markReady();
+        LOG.info("Email index warmed with {} emails in {} ms", emailIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,64 @@
+package com.kaiquef30.peopleregistration.mappers;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+@Component
+public class AddressMapper {
+
+    public AddressDTO toDTO(Address address) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setId(address.getId());
+        addressDTO.setVersion(address.getVersion());
+        addressDTO.setStreet(address.getStreet());
+        addressDTO.setCep(address.getCep());
+        addressDTO.setNumber(address.getNumber());
+        addressDTO.setCity(address.getCity());
+        addressDTO.setState(address.getState());
+        addressDTO.setMainAddress(address.isMainAddress());
+        return addressDTO;
+    }
+
+    public AddressDTO toDTO(AddressSummary address) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setId(address.id());
+        addressDTO.setVersion(address.version());
+        addressDTO.setStreet(address.street());
+        addressDTO.setCep(address.cep());
+        addressDTO.setNumber(address.number());
+        addressDTO.setCity(address.city());
+        addressDTO.setState(address.state());
+        addressDTO.setMainAddress(address.mainAddress());
+        return addressDTO;
+    }
+
+    public Address toEntity(AddressDTO addressDTO) {
+        Address address = new Address();
+        updateEntity(addressDTO, address);
+        address.setMainAddress(addressDTO.isMainAddress());
+        return address;
+    }
+
+    /**
+     * Copies the editable fields onto a managed address. The id, owner and main flag are left untouched.
+     *
+     * @return whether any field changed
+     */
+    public boolean updateEntity(AddressDTO addressDTO, Address address) {
+        boolean changed = !Objects.equals(address.getStreet(), addressDTO.getStreet())
+                || !Objects.equals(address.getCep(), addressDTO.getCep())
+                || !Objects.equals(address.getNumber(), addressDTO.getNumber())
+                || !Objects.equals(address.getCity(), addressDTO.getCity())
+                || !Objects.equals(address.getState(), addressDTO.getState());
+        address.setStreet(addressDTO.getStreet());
+        address.setCep(addressDTO.getCep());
+        address.setNumber(addressDTO.getNumber());
+        address.setCity(addressDTO.getCity());
+        address.setState(addressDTO.getState());
+        return changed;
+    }
+}
@@ -0,0 +1,57 @@
+package com.kaiquef30.peopleregistration.mappers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7396) onto a DTO: members present in the patch replace the DTO's values, a
+ * {@code null} member clears the value and arrays are replaced as a whole. The result is validated before it is
+ * returned, so callers only ever copy a valid DTO onto the entity.
+ */
+@Component
+public class JsonMergePatcher {
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public JsonMergePatcher(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    public <T> T apply(JsonNode patch, T target) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("O patch deve ser um objeto JSON");
+        }
+        T patched;
+        try {
+            patched = objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Patch inválido: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BadRequestException("Patch inválido");
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(patched);
+        if (!violations.isEmpty()) {
+            List<String> errors = new ArrayList<>(violations.size());
+            for (ConstraintViolation<T> violation : violations) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            errors.sort(null);
+            throw new BadRequestException("Patch inválido: " + String.join("; ", errors));
+        }
+        return patched;
+    }
+}
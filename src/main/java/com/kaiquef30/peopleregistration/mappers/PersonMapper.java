@@ -0,0 +1,123 @@
+package com.kaiquef30.peopleregistration.mappers;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+public class PersonMapper {
+
+    private final AddressMapper addressMapper;
+
+    public PersonMapper(AddressMapper addressMapper) {
+        this.addressMapper = addressMapper;
+    }
+
+    public PersonDTO toDTO(Person person) {
+        PersonDTO personDTO = new PersonDTO();
+        personDTO.setId(person.getId());
+        personDTO.setFullName(person.getFullName());
+        personDTO.setEmail(person.getEmail());
+        personDTO.setBirthDate(person.getBirthDate());
+        personDTO.setVersion(Person.toEpochMicros(person.getModifiedAt()));
+
+        List<Address> addresses = person.getAddress();
+        List<AddressDTO> addressDTOs = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            addressDTOs.add(addressMapper.toDTO(address));
+        }
+        personDTO.setAddress(addressDTOs);
+        return personDTO;
+    }
+
+    /**
+     * Maps a narrowed read. Columns that were not selected stay {@code null} and are left out of the representation;
+     * {@code addresses} is {@code null} when they were not requested.
+     */
+    public PersonDTO toDTO(PersonSummary person, List<AddressDTO> addresses) {
+        PersonDTO personDTO = new PersonDTO();
+        personDTO.setId(person.id());
+        personDTO.setFullName(person.fullName());
+        personDTO.setEmail(person.email());
+        personDTO.setBirthDate(person.birthDate());
+        if (person.modifiedAt() != null) {
+            personDTO.setVersion(Person.toEpochMicros(person.modifiedAt()));
+        }
+        personDTO.setAddress(addresses);
+        return personDTO;
+    }
+
+    public Person toEntity(PersonDTO personDTO) {
+        Person person = new Person();
+        person.setFullName(personDTO.getFullName());
+        person.setEmail(personDTO.getEmail());
+        person.setBirthDate(personDTO.getBirthDate());
+
+        if (personDTO.getAddress() != null) {
+            for (AddressDTO addressDTO : personDTO.getAddress()) {
+                Address address = addressMapper.toEntity(addressDTO);
+                address.setPerson(person);
+                person.getAddress().add(address);
+            }
+        }
+        return person;
+    }
+
+    /**
+     * Copies the DTO onto a managed person in place. Addresses are matched by id: matching rows are updated, entries
+     * without an id are added and rows the DTO no longer lists are removed, so unchanged addresses stay untouched.
+     *
+     * @return whether the person or any of its addresses changed
+     * @throws BadRequestException when an address id does not belong to the person or is listed twice
+     */
+    public boolean updateEntity(PersonDTO personDTO, Person person) {
+        boolean changed = !Objects.equals(person.getFullName(), personDTO.getFullName())
+                || !Objects.equals(person.getEmail(), personDTO.getEmail())
+                || !Objects.equals(person.getBirthDate(), personDTO.getBirthDate());
+        person.setFullName(personDTO.getFullName());
+        person.setEmail(personDTO.getEmail());
+        person.setBirthDate(personDTO.getBirthDate());
+
+        List<AddressDTO> addressDTOs = personDTO.getAddress();
+        if (addressDTOs == null) {
+            return changed;
+        }
+
+        List<Address> addresses = person.getAddress();
+        Map<Long, Address> byId = new HashMap<>();
+        for (Address address : addresses) {
+            byId.put(address.getId(), address);
+        }
+        Set<Long> kept = new HashSet<>();
+        List<Address> added = new ArrayList<>();
+        for (AddressDTO addressDTO : addressDTOs) {
+            if (addressDTO.getId() == null) {
+                Address address = addressMapper.toEntity(addressDTO);
+                address.setPerson(person);
+                added.add(address);
+                continue;
+            }
+            Address address = byId.get(addressDTO.getId());
+            if (address == null || !kept.add(addressDTO.getId())) {
+                throw new BadRequestException("O endereço com o ID " + addressDTO.getId()
+                        + " não pertence à pessoa ou foi informado mais de uma vez");
+            }
+            changed |= addressMapper.updateEntity(addressDTO, address);
+        }
+        changed |= addresses.removeIf(address -> !kept.contains(address.getId()));
+        addresses.addAll(added);
+        return changed || !added.isEmpty();
+    }
+}
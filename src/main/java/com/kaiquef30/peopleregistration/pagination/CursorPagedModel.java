@@ -0,0 +1,29 @@
+package com.kaiquef30.peopleregistration.pagination;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+import java.util.List;
+
+public class CursorPagedModel<T> extends CollectionModel<T> {
+
+    private final int size;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long totalElements;
+
+    public CursorPagedModel(List<T> content, List<Link> links, int size, Long totalElements) {
+        super(content, links, null);
+        this.size = size;
+        this.totalElements = totalElements;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
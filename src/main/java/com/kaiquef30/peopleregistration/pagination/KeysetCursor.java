@@ -0,0 +1,75 @@
+package com.kaiquef30.peopleregistration.pagination;
+
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in an id-ordered listing: either "the rows after id" or "the rows before id".
+ */
+public final class KeysetCursor {
+
+    public enum Direction {
+        AFTER, BEFORE
+    }
+
+    private static final KeysetCursor FIRST = new KeysetCursor(Direction.AFTER, Long.MIN_VALUE);
+
+    private final Direction direction;
+
+    private final long id;
+
+    private KeysetCursor(Direction direction, long id) {
+        this.direction = direction;
+        this.id = id;
+    }
+
+    public static KeysetCursor first() {
+        return FIRST;
+    }
+
+    public static KeysetCursor after(long id) {
+        return new KeysetCursor(Direction.AFTER, id);
+    }
+
+    public static KeysetCursor before(long id) {
+        return new KeysetCursor(Direction.BEFORE, id);
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            long id = Long.parseLong(value.substring(2));
+            if (value.startsWith("a:")) {
+                return after(id);
+            }
+            if (value.startsWith("b:")) {
+                return before(id);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ignored) {
+            // falls through to the bad request below
+        }
+        throw new BadRequestException("Cursor inválido: " + token);
+    }
+
+    public String encode() {
+        String value = (direction == Direction.AFTER ? "a:" : "b:") + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public boolean isFirst() {
+        return direction == Direction.AFTER && id == Long.MIN_VALUE;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
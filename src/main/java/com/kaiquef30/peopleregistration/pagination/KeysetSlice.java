@@ -0,0 +1,81 @@
+package com.kaiquef30.peopleregistration.pagination;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * One window of an id-ordered listing plus the cursors around it. Rows are read with a seek on the id, so a
+ * deep window costs the same as the first one.
+ */
+public final class KeysetSlice<T> {
+
+    public static final int MAX_SIZE = 2000;
+
+    private final List<T> content;
+
+    private final KeysetCursor next;
+
+    private final KeysetCursor previous;
+
+    private KeysetSlice(List<T> content, KeysetCursor next, KeysetCursor previous) {
+        this.content = content;
+        this.next = next;
+        this.previous = previous;
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * @param after  rows with an id greater than the argument, ascending
+     * @param before rows with an id lower than the argument, descending
+     */
+    public static <T> KeysetSlice<T> fetch(KeysetCursor cursor, int size,
+                                           BiFunction<Long, Limit, List<T>> after,
+                                           BiFunction<Long, Limit, List<T>> before,
+                                           ToLongFunction<T> idOf) {
+        Limit limit = Limit.of(size + 1);
+
+        if (cursor.getDirection() == KeysetCursor.Direction.AFTER) {
+            List<T> rows = after.apply(cursor.getId(), limit);
+            boolean hasNext = rows.size() > size;
+            List<T> content = hasNext ? rows.subList(0, size) : rows;
+            KeysetCursor next = hasNext ? KeysetCursor.after(idOf.applyAsLong(content.get(size - 1))) : null;
+            KeysetCursor previous = null;
+            if (!cursor.isFirst()) {
+                previous = content.isEmpty()
+                        ? KeysetCursor.before(cursor.getId() + 1)
+                        : KeysetCursor.before(idOf.applyAsLong(content.get(0)));
+            }
+            return new KeysetSlice<>(content, next, previous);
+        }
+
+        List<T> rows = before.apply(cursor.getId(), limit);
+        boolean hasPrevious = rows.size() > size;
+        List<T> content = new ArrayList<>(hasPrevious ? rows.subList(0, size) : rows);
+        Collections.reverse(content);
+        KeysetCursor previous = hasPrevious ? KeysetCursor.before(idOf.applyAsLong(content.get(0))) : null;
+        KeysetCursor next = content.isEmpty()
+                ? KeysetCursor.after(cursor.getId() - 1)
+                : KeysetCursor.after(idOf.applyAsLong(content.get(content.size() - 1)));
+        return new KeysetSlice<>(content, next, previous);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public KeysetCursor getNext() {
+        return next;
+    }
+
+    public KeysetCursor getPrevious() {
+        return previous;
+    }
+}
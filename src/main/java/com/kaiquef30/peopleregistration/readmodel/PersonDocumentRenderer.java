@@ -0,0 +1,72 @@
+package com.kaiquef30.peopleregistration.readmodel;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.exceptions.InternalServerException;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders the stored person documents with the application's JSON settings, leaving out the links, which depend on
+ * the host of each request and are spliced in when the document is served.
+ */
+@Component
+public class PersonDocumentRenderer {
+
+    private static final byte[] LINKS_START = "\"_links\":{".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] HREF_START = ":{\"href\":".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] LINKS_END = "}}}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    public PersonDocumentRenderer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy().addMixIn(RepresentationModel.class, WithoutLinks.class);
+    }
+
+    public byte[] render(PersonDTO personDTO) {
+        try {
+            return objectMapper.writeValueAsBytes(personDTO);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerException("Não foi possível gerar o documento da pessoa: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Appends the {@code _links} object the HAL representation of a single person ends with.
+     */
+    public byte[] withLink(byte[] document, Link link) {
+        byte[] quotedRel;
+        byte[] quotedHref;
+        try {
+            quotedRel = objectMapper.writeValueAsBytes(link.getRel().value());
+            quotedHref = objectMapper.writeValueAsBytes(link.getHref());
+        } catch (JsonProcessingException e) {
+            throw new InternalServerException("Não foi possível gerar o link da pessoa: " + e.getOriginalMessage());
+        }
+        int body = document.length - 1;
+        boolean separator = body > 1;
+        byte[] json = new byte[body + (separator ? 1 : 0) + LINKS_START.length + quotedRel.length + HREF_START.length
+                + quotedHref.length + LINKS_END.length];
+        System.arraycopy(document, 0, json, 0, body);
+        int position = body;
+        if (separator) {
+            json[position++] = ',';
+        }
+        for (byte[] part : new byte[][]{LINKS_START, quotedRel, HREF_START, quotedHref, LINKS_END}) {
+            System.arraycopy(part, 0, json, position, part.length);
+            position += part.length;
+        }
+        return json;
+    }
+
+    @JsonIgnoreProperties("links")
+    private abstract static class WithoutLinks {
+    }
+}
@@ -0,0 +1,201 @@
+package com.kaiquef30.peopleregistration.readmodel;
+
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.domains.PersonDocument;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.repositories.AddressRepository;
+import com.kaiquef30.peopleregistration.repositories.PersonDocumentRepository;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressSummary;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import com.kaiquef30.peopleregistration.repositories.projections.RenderedPerson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps one pre-rendered document per person in {@code tb_person_documents}, so a single-person read is one key
+ * lookup. Writes mark the people they changed and the documents are rendered right before the same transaction
+ * commits, so a document never lags behind the rows it was rendered from.
+ */
+@Component
+public class PersonReadModel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PersonReadModel.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PersonRepository personRepository;
+
+    private final AddressRepository addressRepository;
+
+    private final PersonDocumentRepository personDocumentRepository;
+
+    private final PersonMapper personMapper;
+
+    private final AddressMapper addressMapper;
+
+    private final PersonDocumentRenderer personDocumentRenderer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PersonReadModel(PersonRepository personRepository, AddressRepository addressRepository,
+                           PersonDocumentRepository personDocumentRepository, PersonMapper personMapper,
+                           AddressMapper addressMapper, PersonDocumentRenderer personDocumentRenderer,
+                           TransactionTemplate transactionTemplate) {
+        this.personRepository = personRepository;
+        this.addressRepository = addressRepository;
+        this.personDocumentRepository = personDocumentRepository;
+        this.personMapper = personMapper;
+        this.addressMapper = addressMapper;
+        this.personDocumentRenderer = personDocumentRenderer;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Re-renders the person's document before the current transaction commits, once however many times it changed.
+     * Deleted people lose their document.
+     */
+    public void markChanged(Long personId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> refresh(List.of(personId)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> changed = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refresh(changed);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PersonReadModel.this);
+                }
+            });
+            pending = changed;
+        }
+        pending.add(personId);
+    }
+
+    /**
+     * The stored document, or one rendered from the tables for a person whose document has not been built yet.
+     */
+    public Optional<RenderedPerson> getDocument(Long personId) {
+        Optional<RenderedPerson> stored = personDocumentRepository.findRenderedByPersonId(personId, PersonDocument.CURRENT_FORMAT);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        Map<Long, RenderedPerson> rendered = render(List.of(personId));
+        return Optional.ofNullable(rendered.get(personId));
+    }
+
+    /**
+     * Builds the documents that are missing or in an older layout, such as those of people registered before the read
+     * model existed, in batches of 500 per transaction.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        RebuildResult result = inBatches((after, limit) ->
+                personRepository.findIdsWithoutDocumentAfter(after, PersonDocument.CURRENT_FORMAT, limit));
+        if (result.rendered() > 0) {
+            LOG.info("Backfilled read model documents for {} people", result.rendered());
+        }
+    }
+
+    /**
+     * Re-renders every document and drops those of people that no longer exist. Safe to run while the application
+     * takes writes: a document is only replaced by one rendered from the same or a newer version of the person.
+     */
+    public RebuildResult rebuild() {
+        RebuildResult rendered = inBatches(personRepository::findIdsAfter);
+        Integer orphans = transactionTemplate.execute(status -> personDocumentRepository.deleteOrphans());
+        RebuildResult result = new RebuildResult(rendered.rendered(), rendered.removed() + (orphans != null ? orphans : 0));
+        LOG.info("Rebuilt read model: {} documents rendered, {} removed", result.rendered(), result.removed());
+        return result;
+    }
+
+    private RebuildResult inBatches(BiFunction<Long, Limit, List<Long>> nextIds) {
+        long rendered = 0;
+        long removed = 0;
+        long lastId = 0;
+        while (true) {
+            long after = lastId;
+            Batch batch = transactionTemplate.execute(status -> {
+                List<Long> ids = nextIds.apply(after, Limit.of(BATCH_SIZE));
+                return ids.isEmpty() ? null : new Batch(ids.get(ids.size() - 1), refresh(ids));
+            });
+            if (batch == null) {
+                return new RebuildResult(rendered, removed);
+            }
+            rendered += batch.result().rendered();
+            removed += batch.result().removed();
+            lastId = batch.lastId();
+        }
+    }
+
+    private RebuildResult refresh(Collection<Long> personIds) {
+        personRepository.flush();
+        Map<Long, RenderedPerson> rendered = render(personIds);
+        Set<Long> existing = new HashSet<>(personDocumentRepository.findExistingIds(personIds));
+
+        List<Long> removed = new ArrayList<>();
+        for (Long personId : personIds) {
+            RenderedPerson person = rendered.get(personId);
+            if (person == null) {
+                if (existing.contains(personId)) {
+                    removed.add(personId);
+                }
+            } else if (existing.contains(personId) || personDocumentRepository.insertIfAbsent(
+                    personId, PersonDocument.CURRENT_FORMAT, person.version(), person.json()) == 0) {
+                personDocumentRepository.replaceUnlessNewer(
+                        personId, PersonDocument.CURRENT_FORMAT, person.version(), person.json());
+            }
+        }
+        if (!removed.isEmpty()) {
+            personDocumentRepository.deleteByPersonIdIn(removed);
+        }
+        return new RebuildResult(rendered.size(), removed.size());
+    }
+
+    private Map<Long, RenderedPerson> render(Collection<Long> personIds) {
+        Map<Long, List<AddressDTO>> addresses = new HashMap<>();
+        for (AddressSummary address : addressRepository.findSummariesByPersonIdIn(personIds)) {
+            addresses.computeIfAbsent(address.personId(), personId -> new ArrayList<>()).add(addressMapper.toDTO(address));
+        }
+
+        Map<Long, RenderedPerson> rendered = new HashMap<>();
+        for (PersonSummary person : personRepository.findSummariesByIdIn(personIds)) {
+            byte[] json = personDocumentRenderer.render(
+                    personMapper.toDTO(person, addresses.getOrDefault(person.id(), new ArrayList<>())));
+            rendered.put(person.id(), new RenderedPerson(Person.toEpochMicros(person.modifiedAt()), json));
+        }
+        return rendered;
+    }
+
+    private record Batch(long lastId, RebuildResult result) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.kaiquef30.peopleregistration.readmodel;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds every person document, for instance after rows were changed outside the application. It rewrites the
+ * whole table, so it is not exposed over HTTP by default: add {@code readmodel} to
+ * {@code management.endpoints.web.exposure.include} only where the actuator sits behind authentication.
+ */
+@Component
+@Endpoint(id = "readmodel")
+public class PersonReadModelEndpoint {
+
+    private final PersonReadModel personReadModel;
+
+    public PersonReadModelEndpoint(PersonReadModel personReadModel) {
+        this.personReadModel = personReadModel;
+    }
+
+    @WriteOperation
+    public RebuildResult rebuild() {
+        return personReadModel.rebuild();
+    }
+}
@@ -0,0 +1,7 @@
+package com.kaiquef30.peopleregistration.readmodel;
+
+/**
+ * How many read model documents a rebuild rendered and how many it removed for people that no longer exist.
+ */
+public record RebuildResult(long rendered, long removed) {
+}
@@ -0,0 +1,47 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.domains.AddressRegionCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AddressRegionCountRepository extends JpaRepository<AddressRegionCount, AddressRegionCount.Key> {
+
+    List<AddressRegionCount> findByCityOrderByState(String city);
+
+    List<AddressRegionCount> findByStateAndCityNotOrderByCity(String state, String city);
+
+    @Modifying
+    @Query("update AddressRegionCount r set r.addresses = r.addresses + :addresses, r.people = r.people + :people " +
+            "where r.state = :state and r.city = :city")
+    int increment(String state, String city, long addresses, long people);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_address_region_counts"))
+    @Modifying
+    @Query(value = "insert into tb_address_region_counts (state, city, addresses, people) values (:state, :city, 0, 0) " +
+            "on conflict do nothing", nativeQuery = true)
+    void insertIfAbsent(String state, String city);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_address_region_counts"))
+    @Modifying
+    @Query(value = "insert into tb_address_region_counts (state, city, addresses, people) " +
+            "select a.state, a.city, count(*), count(distinct a.person_id) from tb_address a " +
+            "where a.state is not null and a.city is not null and a.person_id is not null group by a.state, a.city " +
+            "on conflict do nothing", nativeQuery = true)
+    void insertCityTotals();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_address_region_counts"))
+    @Modifying
+    @Query(value = "insert into tb_address_region_counts (state, city, addresses, people) " +
+            "select a.state, '', count(*), count(distinct a.person_id) from tb_address a " +
+            "where a.state is not null and a.city is not null and a.person_id is not null group by a.state " +
+            "on conflict do nothing", nativeQuery = true)
+    void insertStateTotals();
+}
@@ -1,10 +1,49 @@
 package com.kaiquef30.peopleregistration.repositories;
 
 import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressRegion;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {
+public interface AddressRepository extends JpaRepository<Address, Long>, MainAddressQueries {
+
+    @EntityGraph(attributePaths = "person")
+    List<Address> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "person")
+    List<Address> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    Page<Address> findByCep(String cep, Pageable pageable);
+
+    Page<Address> findByState(String state, Pageable pageable);
+
+    Page<Address> findByStateAndCity(String state, String city, Pageable pageable);
+
+    @Query("select new com.kaiquef30.peopleregistration.repositories.projections.AddressRegion(a.state, a.city) " +
+            "from Address a where a.person.id = :personId and a.state is not null and a.city is not null")
+    List<AddressRegion> findRegionsByPersonId(Long personId);
+
+    @Query("select new com.kaiquef30.peopleregistration.repositories.projections.AddressSummary(" +
+            "a.person.id, a.id, a.version, a.street, a.cep, a.number, a.city, a.state, a.isMainAddress) " +
+            "from Address a where a.person.id in :personIds order by a.id")
+    List<AddressSummary> findSummariesByPersonIdIn(Collection<Long> personIds);
 
+    /**
+     * Not read-only, so it runs on the primary: conditional requests compare against the latest version.
+     */
+    @Transactional
+    @Query("select a.version from Address a where a.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
@@ -0,0 +1,14 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.audit.ChangeSubject;
+import com.kaiquef30.peopleregistration.domains.ChangeLogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findBySubjectAndEntityIdOrderByIdAsc(ChangeSubject subject, long entityId);
+}
@@ -0,0 +1,17 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import java.util.List;
+
+/**
+ * Moves a person's main address flag with one statement instead of loading and saving every address.
+ */
+public interface MainAddressQueries {
+
+    /**
+     * Makes {@code addressId} the only main address of {@code personId} and returns the ids of the person's addresses,
+     * all of which were updated. Nothing is updated, and an empty list is returned, when the address does not belong to
+     * the person.
+     */
+    List<Long> switchMainAddress(Long addressId, Long personId);
+
+}
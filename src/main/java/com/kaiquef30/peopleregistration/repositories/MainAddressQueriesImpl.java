@@ -0,0 +1,76 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+class MainAddressQueriesImpl implements MainAddressQueries {
+
+    private static final String SWITCH_MAIN_ADDRESS = "update tb_address " +
+            "set is_main_address = case when id = :addressId then true else false end, version = version + 1 " +
+            "where person_id = :personId " +
+            "and exists (select 1 from tb_address t where t.id = :addressId and t.person_id = :personId)";
+
+    private static final String ADDRESS_COLLECTION_ROLE = Person.class.getName() + ".address";
+
+    private final EntityManager entityManager;
+
+    MainAddressQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Native and synchronized on {@link Address} only, so Hibernate leaves the person region alone instead of
+     * invalidating every region as it does for an unsynchronized native statement. The person's own address entries
+     * and address collection are evicted once the transaction commits. The persistence context is flushed before and
+     * cleared after, since the addresses it may hold no longer match their rows.
+     */
+    @Override
+    public List<Long> switchMainAddress(Long addressId, Long personId) {
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(SWITCH_MAIN_ADDRESS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Address.class)
+                .setParameter("addressId", addressId)
+                .setParameter("personId", personId)
+                .executeUpdate();
+        entityManager.clear();
+
+        if (updated == 0) {
+            return List.of();
+        }
+        List<Long> addressIds = entityManager
+                .createQuery("select a.id from Address a where a.person.id = :personId order by a.id", Long.class)
+                .setParameter("personId", personId)
+                .getResultList();
+        afterCommit(() -> evict(personId, addressIds));
+        return addressIds;
+    }
+
+    private void evict(Long personId, List<Long> addressIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (Long addressId : addressIds) {
+            cache.evict(Address.class, addressId);
+        }
+        cache.unwrap(org.hibernate.Cache.class).evictCollectionData(ADDRESS_COLLECTION_ROLE, personId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
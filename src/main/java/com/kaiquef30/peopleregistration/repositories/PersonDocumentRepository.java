@@ -0,0 +1,54 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.domains.PersonDocument;
+import com.kaiquef30.peopleregistration.repositories.projections.RenderedPerson;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PersonDocumentRepository extends JpaRepository<PersonDocument, Long> {
+
+    @Query("select new com.kaiquef30.peopleregistration.repositories.projections.RenderedPerson(d.version, d.document) " +
+            "from PersonDocument d where d.personId = :personId and d.format = :format")
+    Optional<RenderedPerson> findRenderedByPersonId(Long personId, int format);
+
+    @Query("select d.personId from PersonDocument d where d.personId in :personIds")
+    List<Long> findExistingIds(Collection<Long> personIds);
+
+    /**
+     * Stores a document unless the person already has one, returning 0 in that case. A write and the startup
+     * backfill can both find a document missing; the one committing second then replaces it instead of failing on
+     * the primary key.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_person_documents"))
+    @Modifying
+    @Query(value = "insert into tb_person_documents (person_id, format, version, document) " +
+            "values (:personId, :format, :version, :document) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(Long personId, int format, long version, byte[] document);
+
+    /**
+     * Replaces a document unless the stored one was rendered from a newer version of the person, so a rebuild that
+     * read older state can never overwrite what a concurrent write has just committed.
+     */
+    @Modifying
+    @Query("update PersonDocument d set d.format = :format, d.version = :version, d.document = :document " +
+            "where d.personId = :personId and d.version <= :version")
+    int replaceUnlessNewer(Long personId, int format, long version, byte[] document);
+
+    @Modifying
+    @Query("delete from PersonDocument d where d.personId in :personIds")
+    int deleteByPersonIdIn(Collection<Long> personIds);
+
+    @Modifying
+    @Query("delete from PersonDocument d where not exists (select 1 from Person p where p.id = d.personId)")
+    int deleteOrphans();
+}
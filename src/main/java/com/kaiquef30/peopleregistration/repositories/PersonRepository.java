@@ -1,12 +1,115 @@
 package com.kaiquef30.peopleregistration.repositories;
 
 import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonExportRow;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, PersonSummaryQueries {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Not read-only, so it runs on the primary: conditional requests compare against the latest version.
+     */
+    @Transactional
+    @Query("select p.modifiedAt from Person p where p.id = :id")
+    Optional<LocalDateTime> findModifiedAtById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Person p where p.id = :id")
+    Optional<Person> findForUpdateById(Long id);
+
+    @Query("select p.email from Person p where p.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.email from Person p")
+    Stream<String> streamAllEmails();
+
+    @Query(value = "select p.id from Person p", countQuery = "select count(p) from Person p")
+    Page<Long> findPageOfIds(Pageable pageable);
+
+    @Query(value = "select p.id from Person p where p.searchKey like :pattern escape '\\'",
+            countQuery = "select count(p) from Person p where p.searchKey like :pattern escape '\\'")
+    Page<Long> searchPageOfIds(String pattern, Pageable pageable);
+
+    List<Person> findTop500BySearchKeyIsNull();
+
+    @Query("select p.id from Person p where p.id > :id order by p.id asc")
+    List<Long> findIdsAfter(Long id, Limit limit);
+
+    @Query("select p.id from Person p where p.id < :id order by p.id desc")
+    List<Long> findIdsBefore(Long id, Limit limit);
+
+    @Query("select p.id from Person p where p.id > :id " +
+            "and not exists (select 1 from PersonDocument d where d.personId = p.id and d.format = :format) order by p.id")
+    List<Long> findIdsWithoutDocumentAfter(Long id, int format, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.kaiquef30.peopleregistration.repositories.projections.PersonExportRow(" +
+            "p.id, p.fullName, p.email, p.birthDate, a.id, a.street, a.cep, a.number, a.city, a.state, a.isMainAddress) " +
+            "from Person p left join p.address a order by p.id, a.id")
+    Stream<PersonExportRow> streamExportRows();
+
+    @Query("select new com.kaiquef30.peopleregistration.repositories.projections.PersonSummary(" +
+            "p.id, p.modifiedAt, p.fullName, p.email, p.birthDate) from Person p where p.id in :ids")
+    List<PersonSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "address")
+    List<Person> findAllWithAddressByIdIn(Collection<Long> ids);
+
+    /**
+     * Pages over ids first and then fetches that page together with its addresses, so a page costs the same
+     * number of statements whatever its size.
+     */
+    default Page<Person> findAllWithAddress(Pageable pageable) {
+        Page<Long> ids = findPageOfIds(pageable);
+        return new PageImpl<>(findAllWithAddressInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    default Page<Person> searchWithAddress(String pattern, Pageable pageable) {
+        Page<Long> ids = searchPageOfIds(pattern, pageable);
+        return new PageImpl<>(findAllWithAddressInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    default List<Person> findAllWithAddressInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Integer> positions = new HashMap<>();
+        for (Long id : ids) {
+            positions.put(id, positions.size());
+        }
+        List<Person> people = findAllWithAddressByIdIn(ids);
+        people.sort(Comparator.comparing(person -> positions.get(person.getId())));
+        return people;
+    }
+
 }
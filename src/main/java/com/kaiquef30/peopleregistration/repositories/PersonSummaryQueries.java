@@ -0,0 +1,19 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Reads people as {@link PersonSummary} rows holding only the requested attributes, without touching addresses.
+ */
+public interface PersonSummaryQueries {
+
+    Page<PersonSummary> findSummaries(Collection<String> attributes, Pageable pageable);
+
+    Optional<PersonSummary> findSummaryById(Long id, Collection<String> attributes);
+
+}
@@ -0,0 +1,99 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class PersonSummaryQueriesImpl implements PersonSummaryQueries {
+
+    private static final Set<String> SELECTABLE = Set.of("modifiedAt", "fullName", "email", "birthDate");
+
+    private final EntityManager entityManager;
+
+    PersonSummaryQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<PersonSummary> findSummaries(Collection<String> attributes, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Person> person = select(query, attributes);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), person, builder));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<PersonSummary> content = toSummaries(typedQuery.getResultList(), attributes);
+
+        return PageableExecutionUtils.getPage(content, pageable, this::count);
+    }
+
+    @Override
+    public Optional<PersonSummary> findSummaryById(Long id, Collection<String> attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Person> person = select(query, attributes);
+        query.where(builder.equal(person.get("id"), id));
+
+        return toSummaries(entityManager.createQuery(query).getResultList(), attributes).stream().findFirst();
+    }
+
+    private static Root<Person> select(CriteriaQuery<Tuple> query, Collection<String> attributes) {
+        Root<Person> person = query.from(Person.class);
+        List<Selection<?>> selections = new ArrayList<>(attributes.size() + 1);
+        selections.add(person.get("id").alias("id"));
+        for (String attribute : attributes) {
+            if (!SELECTABLE.contains(attribute)) {
+                throw new IllegalArgumentException("Not a selectable person attribute: " + attribute);
+            }
+            selections.add(person.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections);
+        return person;
+    }
+
+    private static List<PersonSummary> toSummaries(List<Tuple> tuples, Collection<String> attributes) {
+        boolean modifiedAt = attributes.contains("modifiedAt");
+        boolean fullName = attributes.contains("fullName");
+        boolean email = attributes.contains("email");
+        boolean birthDate = attributes.contains("birthDate");
+
+        List<PersonSummary> summaries = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            summaries.add(new PersonSummary(tuple.get("id", Long.class),
+                    modifiedAt ? tuple.get("modifiedAt", LocalDateTime.class) : null,
+                    fullName ? tuple.get("fullName", String.class) : null,
+                    email ? tuple.get("email", String.class) : null,
+                    birthDate ? tuple.get("birthDate", LocalDate.class) : null));
+        }
+        return summaries;
+    }
+
+    private long count() {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        query.select(builder.count(query.from(Person.class)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,43 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.domains.RateLimitCounter;
+import com.kaiquef30.peopleregistration.repositories.projections.RateLimitWindowTotal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RateLimitCounterRepository extends JpaRepository<RateLimitCounter, RateLimitCounter.Key> {
+
+    @Modifying
+    @Query("update RateLimitCounter c set c.hits = :hits where c.limiter = :limiter and c.clientKey = :clientKey " +
+            "and c.windowStart = :windowStart and c.nodeId = :nodeId")
+    int updateHits(String limiter, String clientKey, long windowStart, String nodeId, long hits);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_rate_limit_counters"))
+    @Modifying
+    @Query(value = "insert into tb_rate_limit_counters (limiter, client_key, window_start, node_id, hits) " +
+            "values (:limiter, :clientKey, :windowStart, :nodeId, :hits)", nativeQuery = true)
+    void insertHits(String limiter, String clientKey, long windowStart, String nodeId, long hits);
+
+    /**
+     * Cluster totals of the windows of the given limiters and clients. May return windows of other combinations of
+     * the two; callers keep the ones they asked for.
+     */
+    @Query("select new com.kaiquef30.peopleregistration.repositories.projections.RateLimitWindowTotal(" +
+            "c.limiter, c.clientKey, c.windowStart, sum(c.hits)) from RateLimitCounter c " +
+            "where c.limiter in :limiters and c.clientKey in :clientKeys and c.windowStart >= :since " +
+            "group by c.limiter, c.clientKey, c.windowStart")
+    List<RateLimitWindowTotal> sumHitsSince(Collection<String> limiters, Collection<String> clientKeys, long since);
+
+    @Modifying
+    @Query("delete from RateLimitCounter c where c.windowStart < :before")
+    int deleteWindowsBefore(long before);
+}
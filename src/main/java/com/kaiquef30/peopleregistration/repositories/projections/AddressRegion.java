@@ -0,0 +1,21 @@
+package com.kaiquef30.peopleregistration.repositories.projections;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.AddressRegionCount;
+
+public record AddressRegion(String state, String city) {
+
+    /**
+     * Returns {@code null} for addresses without a state or city, which are not aggregated.
+     */
+    public static AddressRegion of(Address address) {
+        if (address.getState() == null || address.getCity() == null) {
+            return null;
+        }
+        return new AddressRegion(address.getState(), address.getCity());
+    }
+
+    public AddressRegion wholeState() {
+        return new AddressRegion(state, AddressRegionCount.WHOLE_STATE);
+    }
+}
@@ -0,0 +1,5 @@
+package com.kaiquef30.peopleregistration.repositories.projections;
+
+public record AddressSummary(Long personId, Long id, long version, String street, String cep, String number,
+                             String city, String state, boolean mainAddress) {
+}
@@ -0,0 +1,12 @@
+package com.kaiquef30.peopleregistration.repositories.projections;
+
+import java.time.LocalDate;
+
+/**
+ * One person joined with one of its addresses. A person without addresses yields a single row whose address
+ * columns are {@code null}.
+ */
+public record PersonExportRow(Long id, String fullName, String email, LocalDate birthDate,
+                              Long addressId, String street, String cep, String number, String city, String state,
+                              Boolean mainAddress) {
+}
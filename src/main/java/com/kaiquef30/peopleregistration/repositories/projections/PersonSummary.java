@@ -0,0 +1,10 @@
+package com.kaiquef30.peopleregistration.repositories.projections;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The scalar columns of a person. Columns that were not selected are {@code null}.
+ */
+public record PersonSummary(Long id, LocalDateTime modifiedAt, String fullName, String email, LocalDate birthDate) {
+}
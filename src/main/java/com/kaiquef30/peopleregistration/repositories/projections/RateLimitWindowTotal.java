@@ -0,0 +1,4 @@
+package com.kaiquef30.peopleregistration.repositories.projections;
+
+public record RateLimitWindowTotal(String limiter, String clientKey, long windowStart, long hits) {
+}
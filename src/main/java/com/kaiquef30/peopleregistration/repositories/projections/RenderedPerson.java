@@ -0,0 +1,7 @@
+package com.kaiquef30.peopleregistration.repositories.projections;
+
+/**
+ * A person's JSON representation together with the version it was rendered from.
+ */
+public record RenderedPerson(long version, byte[] json) {
+}
@@ -1,7 +1,11 @@
 package com.kaiquef30.peopleregistration.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kaiquef30.peopleregistration.configs.WebConfig;
 import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.WithRateLimitProtection;
 import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.RegionCountDTO;
+import com.kaiquef30.peopleregistration.pagination.CursorPagedModel;
 import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,20 +18,30 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/addresses")
 @Tag(name = "Addresses", description = "Endpoints for address management")
 public class AddressResource {
 
+    private static final List<MediaType> PRODUCES = List.of(MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, WebConfig.APPLICATION_SMILE);
+
     private final AddressUseCase addressUseCase;
 
-    public AddressResource(AddressUseCase addressUseCase) {
+    private final RepresentationNegotiator representationNegotiator;
+
+    public AddressResource(AddressUseCase addressUseCase, RepresentationNegotiator representationNegotiator) {
         this.addressUseCase = addressUseCase;
+        this.representationNegotiator = representationNegotiator;
     }
 
     @Operation(summary = "List", description = "Method that lists all addresses",
@@ -39,9 +53,9 @@ public class AddressResource {
                                     schema = @Schema(implementation = AddressDTO.class))
                     ),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
     @GetMapping(produces = {MediaType.APPLICATION_XML_VALUE,
-            MediaType.APPLICATION_JSON_VALUE})
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<PagedModel<EntityModel<AddressDTO>>> getAllAddresses(
             @PageableDefault(sort = "id", direction = Sort.Direction.ASC)
             Pageable pageable) {
@@ -50,6 +64,72 @@ public class AddressResource {
         return ResponseEntity.ok(addressPagedModel);
     }
 
+    @Operation(summary = "Filter", description = "List addresses by CEP, or by state and optionally city",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = AddressDTO.class))
+                    ),
+                    @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<PagedModel<EntityModel<AddressDTO>>> findAddresses(
+            @RequestParam(required = false) String cep,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String city,
+            @PageableDefault(sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable) {
+        return ResponseEntity.ok(addressUseCase.findAddresses(cep, state, city, pageable));
+    }
+
+    @Operation(summary = "Counts per state", description = "Addresses and distinct people per state",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
+    @GetMapping(value = "/counts/states", produces = {MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<RegionCountDTO>> getStateCounts() {
+        return ResponseEntity.ok(addressUseCase.getStateCounts());
+    }
+
+    @Operation(summary = "Counts per city", description = "Addresses and distinct people per city of a state",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
+    @GetMapping(value = "/counts/cities", produces = {MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<RegionCountDTO>> getCityCounts(@RequestParam String state) {
+        return ResponseEntity.ok(addressUseCase.getCityCounts(state));
+    }
+
+    @Operation(summary = "List by cursor", description = "List addresses ordered by id using an opaque cursor instead of page offsets",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = AddressDTO.class))
+                    ),
+                    @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CursorPagedModel<EntityModel<AddressDTO>>> getAddressesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        CursorPagedModel<EntityModel<AddressDTO>> cursorPagedModel = addressUseCase.getAddressesByCursor(cursor, size, withTotal);
+
+        return ResponseEntity.ok(cursorPagedModel);
+    }
+
     @Operation(summary = "Obtain one", description = "Get an address by id",
             responses = {
                     @ApiResponse(
@@ -58,15 +138,24 @@ public class AddressResource {
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = AddressDTO.class))
                     ),
+                    @ApiResponse(description = "Not modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 120, refillPeriodMs = 60000, burst = 30)
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_XML_VALUE,
-            MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<EntityModel<AddressDTO>> getAddressById(@PathVariable Long id) {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<EntityModel<AddressDTO>> getAddressById(@PathVariable Long id, NativeWebRequest webRequest) {
+        MediaType representation = representationNegotiator.select(webRequest, PRODUCES);
+        if (webRequest != null && webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && addressUseCase.getAddressVersion(id)
+                .map(version -> webRequest.checkNotModified(ETags.of(version, representation, null))).orElse(false)) {
+            return null;
+        }
         EntityModel<AddressDTO> addressEntityModel = addressUseCase.getAddressById(id);
 
-        return ResponseEntity.ok(addressEntityModel);
+        return ResponseEntity.ok().contentType(representation)
+                .eTag(ETags.of(addressEntityModel.getContent().getVersion(), representation, null))
+                .body(addressEntityModel);
     }
 
 
@@ -74,23 +163,47 @@ public class AddressResource {
             responses = {
                     @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 10, refillPeriodMs = 60000)
     @PostMapping(value = "/register/{personId}",
-            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE},
-            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE})
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<AddressDTO> createAddress(@Valid @RequestBody AddressDTO addressDTO, @PathVariable Long personId) {
         return ResponseEntity.status(HttpStatus.CREATED).body(addressUseCase.createAddress(addressDTO, personId));
     }
 
     @Operation(summary = "Update", description = "Update an address", responses = {
+            @ApiResponse(description = "Precondition failed", responseCode = "412", content = @Content),
             @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
     @PutMapping(value = "/{id}",
-            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE},
-            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<AddressDTO> updateAddress(@Valid @RequestBody AddressDTO addressDTO, @PathVariable Long id) {
-        return ResponseEntity.ok(addressUseCase.updateAddress(addressDTO, id));
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<AddressDTO> updateAddress(@Valid @RequestBody AddressDTO addressDTO, @PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AddressDTO updatedAddress = addressUseCase.updateAddress(addressDTO, id, ETags.parseIfMatch(ifMatch));
+
+        return ResponseEntity.ok().eTag(ETags.of(updatedAddress.getVersion())).body(updatedAddress);
+    }
+
+    @Operation(summary = "Patch", description = "Partially update an address with a JSON Merge Patch (RFC 7396)", responses = {
+            @ApiResponse(description = "Precondition failed", responseCode = "412", content = @Content),
+            @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
+    @PatchMapping(value = "/{id}",
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = "application/merge-patch+json")
+    public ResponseEntity<AddressDTO> patchAddress(@RequestBody JsonNode patch, @PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AddressDTO updatedAddress = addressUseCase.patchAddress(patch, id, ETags.parseIfMatch(ifMatch));
+
+        return ResponseEntity.ok().eTag(ETags.of(updatedAddress.getVersion())).body(updatedAddress);
     }
 
     @Operation(summary = "Delete", description = "Delete an address",
@@ -102,7 +215,7 @@ public class AddressResource {
                     ),
                     @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAddress(@PathVariable Long id) {
         addressUseCase.deleteAddress(id);
@@ -119,10 +232,10 @@ public class AddressResource {
                     ),
                     @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
     @PutMapping("/{addressId}/set-main/{personId}")
     public ResponseEntity<Void> setMainAddress(@PathVariable Long addressId, @PathVariable Long personId) {
-        addressUseCase.setMainAddress(personId, addressId);
+        addressUseCase.setMainAddress(addressId, personId);
         return ResponseEntity.ok().build();
     }
 
@@ -0,0 +1,66 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import com.kaiquef30.peopleregistration.configs.WebConfig;
+import com.kaiquef30.peopleregistration.exceptions.PreconditionFailedException;
+import org.springframework.http.MediaType;
+
+import java.util.Set;
+
+/**
+ * Strong entity tags built from a resource version: the address {@code @Version} or the person's modification time
+ * in epoch microseconds. A strong tag identifies one exact body, so representations other than the full JSON one
+ * carry a suffix naming their media type or narrowed fields.
+ */
+public final class ETags {
+
+    private static final Set<String> FORMATS = Set.of(MediaType.APPLICATION_XML.getSubtype(),
+            MediaType.APPLICATION_CBOR.getSubtype(), WebConfig.APPLICATION_SMILE.getSubtype());
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Tags one representation of the resource: JSON keeps the bare version, any other media type adds its subtype,
+     * and a narrowed representation, such as one limited by {@code fields=}, adds its variant. A {@code null} variant
+     * is the full representation.
+     */
+    public static String of(long version, MediaType representation, String variant) {
+        StringBuilder tag = new StringBuilder("\"").append(version);
+        if (!MediaType.APPLICATION_JSON.equalsTypeAndSubtype(representation)) {
+            tag.append(';').append(representation.getSubtype());
+        }
+        if (variant != null) {
+            tag.append(';').append(variant);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Reads the version a client expects from an {@code If-Match} header, accepting the tag of any full
+     * representation. Returns {@code null} when there is no precondition to check. Weak, narrowed or unparseable tags
+     * can never match a strong comparison, so they fail right away.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            String value = tag.substring(1, tag.length() - 1);
+            int suffix = value.indexOf(';');
+            if (suffix >= 0 && FORMATS.contains(value.substring(suffix + 1))) {
+                value = value.substring(0, suffix);
+            }
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException ignored) {
+                // falls through to the failed precondition below
+            }
+        }
+        throw new PreconditionFailedException("O recurso foi alterado ou a versão informada no If-Match é inválida");
+    }
+}
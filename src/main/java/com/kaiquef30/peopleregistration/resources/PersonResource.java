@@ -1,7 +1,16 @@
 package com.kaiquef30.peopleregistration.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kaiquef30.peopleregistration.configs.WebConfig;
 import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.WithRateLimitProtection;
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationResultDTO;
 import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonField;
+import com.kaiquef30.peopleregistration.pagination.CursorPagedModel;
+import com.kaiquef30.peopleregistration.repositories.projections.RenderedPerson;
+import com.kaiquef30.peopleregistration.useCases.PeopleBulkRegistrationUseCase;
+import com.kaiquef30.peopleregistration.useCases.PeopleExportFormat;
+import com.kaiquef30.peopleregistration.useCases.PeopleExportUseCase;
 import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,23 +23,53 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/people")
 @Tag(name = "People", description = "Endpoints for people management")
 public class PersonResource {
 
+    /**
+     * Exports stream every person; only they get an async timeout longer than the default.
+     */
+    static final Duration EXPORT_TIMEOUT = Duration.ofHours(1);
+
+    private static final List<MediaType> PRODUCES_WITHOUT_JSON = List.of(MediaType.APPLICATION_XML,
+            MediaType.APPLICATION_CBOR, WebConfig.APPLICATION_SMILE);
+
     private final PersonUseCase personUseCase;
 
-    public PersonResource(PersonUseCase personUseCase) {
+    private final PeopleExportUseCase peopleExportUseCase;
+
+    private final PeopleBulkRegistrationUseCase peopleBulkRegistrationUseCase;
+
+    private final RepresentationNegotiator representationNegotiator;
+
+    public PersonResource(PersonUseCase personUseCase, PeopleExportUseCase peopleExportUseCase,
+                          PeopleBulkRegistrationUseCase peopleBulkRegistrationUseCase,
+                          RepresentationNegotiator representationNegotiator) {
         this.personUseCase = personUseCase;
+        this.peopleExportUseCase = peopleExportUseCase;
+        this.peopleBulkRegistrationUseCase = peopleBulkRegistrationUseCase;
+        this.representationNegotiator = representationNegotiator;
     }
 
-    @Operation(summary = "List", description = "List all people",
+    @Operation(summary = "List", description = "List all people, optionally limited to the comma separated fields " +
+            "in fields (fullName, email, birthDate, address)",
             responses = {
                     @ApiResponse(
                             description = "Success",
@@ -38,33 +77,155 @@ public class PersonResource {
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = PersonDTO.class))
                     ),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
     @GetMapping(produces = {MediaType.APPLICATION_XML_VALUE,
-            MediaType.APPLICATION_JSON_VALUE})
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<PagedModel<EntityModel<PersonDTO>>> getAllPeople(
             @PageableDefault(sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable,
+            @RequestParam(required = false) String fields) {
+        Set<PersonField> requested = PersonField.parse(fields);
+        PagedModel<EntityModel<PersonDTO>> pagedModel = PersonField.isAll(requested)
+                ? personUseCase.getAllPeople(pageable) : personUseCase.getAllPeople(pageable, requested);
+
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    @Operation(summary = "Search", description = "Search people by part of the name or e-mail, ignoring case and accents",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PersonDTO.class))
+                    ),
+                    @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<PagedModel<EntityModel<PersonDTO>>> searchPeople(
+            @RequestParam("q") String query,
+            @PageableDefault(sort = "fullName", direction = Sort.Direction.ASC)
             Pageable pageable) {
-        PagedModel<EntityModel<PersonDTO>> pagedModel = personUseCase.getAllPeople(pageable);
+        PagedModel<EntityModel<PersonDTO>> pagedModel = personUseCase.searchPeople(query, pageable);
 
         return ResponseEntity.ok(pagedModel);
     }
 
-    @Operation(summary = "Obtain one", description = "Get a person by id",
+    @Operation(summary = "List by cursor", description = "List people ordered by id using an opaque cursor instead of page offsets",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PersonDTO.class))
+                    ),
+                    @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 60, refillPeriodMs = 60000, burst = 20)
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CursorPagedModel<EntityModel<PersonDTO>>> getPeopleByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        CursorPagedModel<EntityModel<PersonDTO>> cursorPagedModel = personUseCase.getPeopleByCursor(cursor, size, withTotal);
+
+        return ResponseEntity.ok(cursorPagedModel);
+    }
+
+    @Operation(summary = "Export", description = "Stream every person with their addresses as newline-delimited JSON; " +
+            "the format for any Accept header other than XML, or none",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(policy = "people.export", capacity = 2, refillPeriodMs = 60000)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPeopleAsNdjson(WebRequest webRequest) {
+        extendAsyncTimeout(webRequest, EXPORT_TIMEOUT);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> peopleExportUseCase.exportPeople(outputStream, PeopleExportFormat.NDJSON));
+    }
+
+    @Operation(summary = "Export as XML", description = "Stream every person with their addresses as a single XML document",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(mediaType = MediaType.APPLICATION_XML_VALUE)),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(policy = "people.export", capacity = 2, refillPeriodMs = 60000)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_XML_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPeopleAsXml(WebRequest webRequest) {
+        extendAsyncTimeout(webRequest, EXPORT_TIMEOUT);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_XML)
+                .body(outputStream -> peopleExportUseCase.exportPeople(outputStream, PeopleExportFormat.XML));
+    }
+
+    @Operation(summary = "Obtain one", description = "Get a person by id, optionally limited to the comma separated " +
+            "fields in fields (fullName, email, birthDate, address)",
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = PersonDTO.class))
                     ),
+                    @ApiResponse(description = "Not modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(policy = "people.get", capacity = 120, refillPeriodMs = 60000, burst = 30)
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_XML_VALUE,
-            MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<EntityModel<PersonDTO>> getPersonById(@PathVariable Long id) {
-        EntityModel<PersonDTO> personDTOEntityModel = personUseCase.getPersonById(id);
+            MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<EntityModel<PersonDTO>> getPersonById(@PathVariable Long id,
+                                                                @RequestParam(required = false) String fields,
+                                                                NativeWebRequest webRequest) {
+        return getPersonById(id, fields, webRequest, representationNegotiator.select(webRequest, PRODUCES_WITHOUT_JSON));
+    }
+
+    private ResponseEntity<EntityModel<PersonDTO>> getPersonById(Long id, String fields, WebRequest webRequest,
+                                                                 MediaType representation) {
+        Set<PersonField> requested = PersonField.parse(fields);
+        String variant = PersonField.isAll(requested) ? null : PersonField.variantOf(requested);
+        if (webRequest != null && webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && personUseCase.getPersonVersion(id)
+                .map(version -> webRequest.checkNotModified(ETags.of(version, representation, variant))).orElse(false)) {
+            return null;
+        }
+        EntityModel<PersonDTO> personDTOEntityModel = variant == null
+                ? personUseCase.getPersonById(id) : personUseCase.getPersonById(id, requested);
+
+        return ResponseEntity.ok().contentType(representation)
+                .eTag(ETags.of(personDTOEntityModel.getContent().getVersion(), representation, variant))
+                .body(personDTOEntityModel);
+    }
+
+    @Operation(summary = "Obtain one as JSON", description = "Get a person by id as JSON. The full representation " +
+            "is served from the pre-rendered read model; fields falls back to a narrowed read",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PersonDTO.class))
+                    ),
+                    @ApiResponse(description = "Not modified", responseCode = "304", content = @Content),
+                    @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(policy = "people.get", capacity = 120, refillPeriodMs = 60000, burst = 30)
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPersonByIdAsJson(@PathVariable Long id,
+                                                 @RequestParam(required = false) String fields,
+                                                 NativeWebRequest webRequest) {
+        MediaType representation = representationNegotiator.select(webRequest, List.of(MediaType.APPLICATION_JSON));
+        if (!PersonField.isAll(PersonField.parse(fields))) {
+            return getPersonById(id, fields, webRequest, representation);
+        }
+        if (webRequest != null && webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && personUseCase.getPersonVersion(id).map(version -> webRequest.checkNotModified(ETags.of(version))).orElse(false)) {
+            return null;
+        }
+        RenderedPerson person = personUseCase.getRenderedPerson(id);
 
-        return ResponseEntity.ok(personDTOEntityModel);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(ETags.of(person.version())).body(person.json());
     }
 
     @Operation(summary = "Register", description = "Register a person",
@@ -72,25 +233,65 @@ public class PersonResource {
                     @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
                     @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 10, refillPeriodMs = 60000)
     @PostMapping(value = "/register",
-            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE},
-            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE})
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<PersonDTO> createPerson(@Valid @RequestBody PersonDTO personDTO) {
         return ResponseEntity.status(HttpStatus.CREATED).body(personUseCase.createPerson(personDTO));
     }
 
+    @Operation(summary = "Bulk register", description = "Register up to 1000 people, reporting the outcome of each item",
+            responses = {
+                    @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 10, refillPeriodMs = 60000)
+    @PostMapping(value = "/register/bulk",
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+                    WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BulkRegistrationResultDTO> registerPeople(@RequestBody List<PersonDTO> people) {
+        return ResponseEntity.ok(peopleBulkRegistrationUseCase.registerPeople(people));
+    }
+
     @Operation(summary = "Update", description = "Update a person",
             responses = {
                     @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
     @PutMapping(value = "/update/{id}",
-            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE},
-            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<PersonDTO> updatePerson(@Valid @RequestBody PersonDTO personDTO, @PathVariable Long id) {
-        return ResponseEntity.ok(personUseCase.updatePerson(personDTO, id));
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<PersonDTO> updatePerson(@Valid @RequestBody PersonDTO personDTO, @PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PersonDTO updatedPerson = personUseCase.updatePerson(personDTO, id, ETags.parseIfMatch(ifMatch));
+
+        return ResponseEntity.ok().eTag(ETags.of(updatedPerson.getVersion())).body(updatedPerson);
+    }
+
+    @Operation(summary = "Patch", description = "Partially update a person with a JSON Merge Patch (RFC 7396)",
+            responses = {
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition failed", responseCode = "412", content = @Content),
+                    @ApiResponse(description = "Bad request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
+    @PatchMapping(value = "/{id}",
+            produces = {MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE},
+            consumes = "application/merge-patch+json")
+    public ResponseEntity<PersonDTO> patchPerson(@RequestBody JsonNode patch, @PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PersonDTO updatedPerson = personUseCase.patchPerson(patch, id, ETags.parseIfMatch(ifMatch));
+
+        return ResponseEntity.ok().eTag(ETags.of(updatedPerson.getVersion())).body(updatedPerson);
     }
 
     @Operation(summary = "Delete", description = "Delete a person",
@@ -102,11 +303,20 @@ public class PersonResource {
                     ),
                     @ApiResponse(description = "Not found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content)})
-    @WithRateLimitProtection
+    @WithRateLimitProtection(capacity = 20, refillPeriodMs = 60000)
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Void> deletePerson(@PathVariable Long id) {
         personUseCase.deletePerson(id);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Sets the timeout of the async request the returned streaming body starts.
+     */
+    private static void extendAsyncTimeout(WebRequest webRequest, Duration timeout) {
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(timeout.toMillis());
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Picks the media type a request gets among the ones a mapping produces, as Spring MVC's content negotiation would,
+ * so a handler can tag the response with it (see {@link ETags#of(long, MediaType, String)}) and pin the body to it.
+ * The response is marked as varying by {@code Accept}, including a {@code 304} sent before any body exists.
+ */
+@Component
+public class RepresentationNegotiator {
+
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    public RepresentationNegotiator(ContentNegotiationManager contentNegotiationManager) {
+        this.contentNegotiationManager = contentNegotiationManager;
+    }
+
+    public MediaType select(NativeWebRequest request, List<MediaType> producible) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return producible.get(0);
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType accepted : acceptable) {
+            for (MediaType candidate : producible) {
+                if (accepted.getQualityValue() > 0 && accepted.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return producible.get(0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Builds item self links without {@code methodOn} proxies. The {@code /{id}} mappings of the two resources are read
+ * once at startup; per page only the base URI of the current request is resolved, and each link is a concatenation.
+ */
+@Component
+public class SelfLinkFactory {
+
+    private static final String ID_VARIABLE = "{id}";
+
+    private final String personPath;
+
+    private final String addressPath;
+
+    public SelfLinkFactory() {
+        this.personPath = pathBeforeId(PersonResource.class, "getPersonById");
+        this.addressPath = pathBeforeId(AddressResource.class, "getAddressById");
+    }
+
+    /**
+     * Self links for people under the current request's base URI. Resolve it once per page, outside the item loop.
+     */
+    public Function<Long, Link> people() {
+        String prefix = currentBaseUri() + personPath;
+        return id -> Link.of(prefix + id);
+    }
+
+    /**
+     * The {@code Persons} link a single person is returned with.
+     */
+    public Link peopleCollection() {
+        return Link.of(currentBaseUri() + personPath.substring(0, personPath.length() - 1), "Persons");
+    }
+
+    /**
+     * The {@code addresses} link a single address is returned with.
+     */
+    public Link addressesCollection() {
+        return Link.of(currentBaseUri() + addressPath.substring(0, addressPath.length() - 1), "addresses");
+    }
+
+    public Function<Long, Link> addresses() {
+        String prefix = currentBaseUri() + addressPath;
+        return id -> Link.of(prefix + id);
+    }
+
+    private static String currentBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    }
+
+    private static String pathBeforeId(Class<?> resource, String methodName) {
+        Method method = Arrays.stream(resource.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(resource.getSimpleName() + "." + methodName + " not found"));
+        String path = firstPath(resource) + firstPath(method);
+        if (!path.endsWith(ID_VARIABLE)) {
+            throw new IllegalStateException("Expected " + path + " to end with " + ID_VARIABLE);
+        }
+        return path.substring(0, path.length() - ID_VARIABLE.length());
+    }
+
+    private static String firstPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+}
@@ -0,0 +1,47 @@
+package com.kaiquef30.peopleregistration.search;
+
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills {@code search_key} for people registered before the column existed, in batches of 500 per transaction.
+ */
+@Component
+public class PersonSearchKeyBackfill {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PersonSearchKeyBackfill.class);
+
+    private final PersonRepository personRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PersonSearchKeyBackfill(PersonRepository personRepository, TransactionTemplate transactionTemplate) {
+        this.personRepository = personRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long total = 0;
+        Integer updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<Person> people = personRepository.findTop500BySearchKeyIsNull();
+                people.forEach(Person::refreshSearchKey);
+                return people.size();
+            });
+            total += updated != null ? updated : 0;
+        } while (updated != null && updated > 0);
+        if (total > 0) {
+            LOG.info("Backfilled search keys for {} people", total);
+        }
+    }
+}
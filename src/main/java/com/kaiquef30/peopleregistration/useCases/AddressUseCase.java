@@ -1,19 +1,37 @@
 package com.kaiquef30.peopleregistration.useCases;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.RegionCountDTO;
+import com.kaiquef30.peopleregistration.pagination.CursorPagedModel;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface AddressUseCase {
 
     PagedModel<EntityModel<AddressDTO>> getAllAddresses(Pageable pageable);
 
+    PagedModel<EntityModel<AddressDTO>> findAddresses(String cep, String state, String city, Pageable pageable);
+
+    List<RegionCountDTO> getStateCounts();
+
+    List<RegionCountDTO> getCityCounts(String state);
+
+    CursorPagedModel<EntityModel<AddressDTO>> getAddressesByCursor(String cursor, int size, boolean withTotal);
+
     EntityModel<AddressDTO> getAddressById(Long id);
 
+    Optional<Long> getAddressVersion(Long id);
+
     AddressDTO createAddress(AddressDTO AddressDTO, Long personId);
 
-    AddressDTO updateAddress(AddressDTO addressDTO, Long id);
+    AddressDTO updateAddress(AddressDTO addressDTO, Long id, Long expectedVersion);
+
+    AddressDTO patchAddress(JsonNode patch, Long id, Long expectedVersion);
 
     void deleteAddress(Long id);
 
@@ -0,0 +1,12 @@
+package com.kaiquef30.peopleregistration.useCases;
+
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationResultDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+
+import java.util.List;
+
+public interface PeopleBulkRegistrationUseCase {
+
+    BulkRegistrationResultDTO registerPeople(List<PersonDTO> people);
+
+}
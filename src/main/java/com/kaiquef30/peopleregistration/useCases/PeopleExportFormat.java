@@ -0,0 +1,8 @@
+package com.kaiquef30.peopleregistration.useCases;
+
+public enum PeopleExportFormat {
+
+    NDJSON,
+
+    XML
+}
@@ -0,0 +1,10 @@
+package com.kaiquef30.peopleregistration.useCases;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PeopleExportUseCase {
+
+    void exportPeople(OutputStream outputStream, PeopleExportFormat format) throws IOException;
+
+}
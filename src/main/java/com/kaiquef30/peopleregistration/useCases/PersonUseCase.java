@@ -1,19 +1,43 @@
 package com.kaiquef30.peopleregistration.useCases;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonField;
+import com.kaiquef30.peopleregistration.pagination.CursorPagedModel;
+import com.kaiquef30.peopleregistration.repositories.projections.RenderedPerson;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 
+import java.util.Optional;
+import java.util.Set;
+
 public interface PersonUseCase {
 
     PagedModel<EntityModel<PersonDTO>> getAllPeople(Pageable pageable);
 
+    PagedModel<EntityModel<PersonDTO>> getAllPeople(Pageable pageable, Set<PersonField> fields);
+
+    CursorPagedModel<EntityModel<PersonDTO>> getPeopleByCursor(String cursor, int size, boolean withTotal);
+
+    PagedModel<EntityModel<PersonDTO>> searchPeople(String query, Pageable pageable);
+
     EntityModel<PersonDTO> getPersonById(Long id);
 
+    EntityModel<PersonDTO> getPersonById(Long id, Set<PersonField> fields);
+
+    /**
+     * The full JSON representation of a person, links included, as served from the read model.
+     */
+    RenderedPerson getRenderedPerson(Long id);
+
+    Optional<Long> getPersonVersion(Long id);
+
     PersonDTO createPerson(PersonDTO personDTO);
 
-    PersonDTO updatePerson(PersonDTO personDTO, Long id);
+    PersonDTO updatePerson(PersonDTO personDTO, Long id, Long expectedVersion);
+
+    PersonDTO patchPerson(JsonNode patch, Long id, Long expectedVersion);
 
     void deletePerson(Long id);
 
@@ -0,0 +1,118 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.repositories.AddressRegionCountRepository;
+import com.kaiquef30.peopleregistration.repositories.AddressRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressRegion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code tb_address_region_counts} in step with address writes. Callers describe a person's addresses before
+ * and after a change as lists of regions; the counter turns that into per-city and per-state deltas and applies each
+ * with one increment statement, so reads never need a GROUP BY over {@code tb_address}.
+ */
+@Component
+public class AddressRegionCounter implements SmartInitializingSingleton {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AddressRegionCounter.class);
+
+    private final AddressRegionCountRepository addressRegionCountRepository;
+
+    private final AddressRepository addressRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AddressRegionCounter(AddressRegionCountRepository addressRegionCountRepository,
+                                AddressRepository addressRepository, TransactionTemplate transactionTemplate) {
+        this.addressRegionCountRepository = addressRegionCountRepository;
+        this.addressRepository = addressRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public List<AddressRegion> regionsOfPerson(Long personId) {
+        return addressRepository.findRegionsByPersonId(personId);
+    }
+
+    public static List<AddressRegion> regionsOf(Collection<Address> addresses) {
+        List<AddressRegion> regions = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            AddressRegion region = AddressRegion.of(address);
+            if (region != null) {
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+
+    public void apply(List<AddressRegion> before, List<AddressRegion> after) {
+        Deltas deltas = new Deltas();
+        deltas.add(before, after);
+        apply(deltas);
+    }
+
+    public void apply(Deltas deltas) {
+        deltas.values.forEach((region, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            if (addressRegionCountRepository.increment(region.state(), region.city(), delta[0], delta[1]) == 0) {
+                addressRegionCountRepository.insertIfAbsent(region.state(), region.city());
+                addressRegionCountRepository.increment(region.state(), region.city(), delta[0], delta[1]);
+            }
+        });
+    }
+
+    /**
+     * Builds the aggregate from scratch when it is empty but addresses already exist, e.g. on the first start after
+     * the table was introduced. Runs before the web server starts, so no write of this instance can make the table
+     * look built. Instances starting together may all find it empty; the inserts skip the rows another one already
+     * wrote.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (addressRegionCountRepository.count() == 0 && addressRepository.count() > 0) {
+                addressRegionCountRepository.insertCityTotals();
+                addressRegionCountRepository.insertStateTotals();
+                LOG.info("Built address region counts from {} addresses", addressRepository.count());
+            }
+        });
+    }
+
+    /**
+     * Accumulated address and people deltas per region, so a batch touching many people issues one increment per
+     * region rather than one per person.
+     */
+    public static class Deltas {
+
+        private final Map<AddressRegion, long[]> values = new HashMap<>();
+
+        public Deltas add(List<AddressRegion> before, List<AddressRegion> after) {
+            Map<AddressRegion, int[]> counts = new HashMap<>();
+            for (AddressRegion region : before) {
+                counts.computeIfAbsent(region, r -> new int[2])[0]++;
+                counts.computeIfAbsent(region.wholeState(), r -> new int[2])[0]++;
+            }
+            for (AddressRegion region : after) {
+                counts.computeIfAbsent(region, r -> new int[2])[1]++;
+                counts.computeIfAbsent(region.wholeState(), r -> new int[2])[1]++;
+            }
+            counts.forEach((region, count) -> {
+                long[] delta = values.computeIfAbsent(region, r -> new long[2]);
+                delta[0] += count[1] - count[0];
+                delta[1] += (count[1] > 0 ? 1 : 0) - (count[0] > 0 ? 1 : 0);
+            });
+            return this;
+        }
+    }
+}
@@ -1,23 +1,47 @@
 package com.kaiquef30.peopleregistration.useCases.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kaiquef30.peopleregistration.audit.ChangeAction;
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCache;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCacheEvictor;
 import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.RegionCountDTO;
 import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.AddressRegionCount;
 import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import com.kaiquef30.peopleregistration.exceptions.PreconditionFailedException;
 import com.kaiquef30.peopleregistration.exceptions.ResourceNotFoundException;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.mappers.JsonMergePatcher;
+import com.kaiquef30.peopleregistration.pagination.CursorPagedModel;
+import com.kaiquef30.peopleregistration.pagination.KeysetCursor;
+import com.kaiquef30.peopleregistration.pagination.KeysetSlice;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.AddressRegionCountRepository;
 import com.kaiquef30.peopleregistration.repositories.AddressRepository;
 import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressRegion;
 import com.kaiquef30.peopleregistration.resources.AddressResource;
+import com.kaiquef30.peopleregistration.resources.SelfLinkFactory;
 import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
-import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class AddressUseCaseImpl implements AddressUseCase {
@@ -26,39 +50,129 @@ public class AddressUseCaseImpl implements AddressUseCase {
 
     private final PersonRepository personRepository;
 
-    private final ModelMapper modelMapper;
+    private final AddressMapper addressMapper;
 
     private final PagedResourcesAssembler<AddressDTO> pagedResourcesAssembler;
 
+    private final ReadCacheEvictor readCacheEvictor;
+
+    private final AddressRegionCounter addressRegionCounter;
+
+    private final AddressRegionCountRepository addressRegionCountRepository;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    private final SelfLinkFactory selfLinkFactory;
+
+    private final ChangeLog changeLog;
+
+    private final PersonReadModel personReadModel;
+
+    private final ReadCache readCache;
+
     public AddressUseCaseImpl(AddressRepository addressRepository, PersonRepository personRepository,
-                              ModelMapper modelMapper, PagedResourcesAssembler<AddressDTO> pagedResourcesAssembler) {
+                              AddressMapper addressMapper, PagedResourcesAssembler<AddressDTO> pagedResourcesAssembler,
+                              ReadCacheEvictor readCacheEvictor, AddressRegionCounter addressRegionCounter,
+                              AddressRegionCountRepository addressRegionCountRepository,
+                              JsonMergePatcher jsonMergePatcher, SelfLinkFactory selfLinkFactory,
+                              ChangeLog changeLog, PersonReadModel personReadModel, ReadCache readCache) {
         this.addressRepository = addressRepository;
         this.personRepository = personRepository;
-        this.modelMapper = modelMapper;
+        this.addressMapper = addressMapper;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.readCacheEvictor = readCacheEvictor;
+        this.addressRegionCounter = addressRegionCounter;
+        this.addressRegionCountRepository = addressRegionCountRepository;
+        this.jsonMergePatcher = jsonMergePatcher;
+        this.selfLinkFactory = selfLinkFactory;
+        this.changeLog = changeLog;
+        this.personReadModel = personReadModel;
+        this.readCache = readCache;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public PagedModel<EntityModel<AddressDTO>> getAllAddresses(Pageable pageable) {
         Page<Address> addressPage = addressRepository.findAll(pageable);
 
-        Page<AddressDTO> addressDTOPage = addressPage.map(address -> modelMapper.map(address, AddressDTO.class));
+        Page<AddressDTO> addressDTOPage = addressPage.map(addressMapper::toDTO);
+
+        Function<Long, Link> selfLink = selfLinkFactory.addresses();
+        return pagedResourcesAssembler.toModel(addressDTOPage, address -> EntityModel.of(address, selfLink.apply(address.getId())));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PagedModel<EntityModel<AddressDTO>> findAddresses(String cep, String state, String city, Pageable pageable) {
+        Page<Address> addressPage;
+        if (cep != null && !cep.isBlank()) {
+            addressPage = addressRepository.findByCep(cep, pageable);
+        } else if (state != null && !state.isBlank() && city != null && !city.isBlank()) {
+            addressPage = addressRepository.findByStateAndCity(state, city, pageable);
+        } else if (state != null && !state.isBlank()) {
+            addressPage = addressRepository.findByState(state, pageable);
+        } else {
+            throw new BadRequestException("Informe o CEP ou o estado (e opcionalmente a cidade) para filtrar os endereços");
+        }
+
+        Page<AddressDTO> addressDTOPage = addressPage.map(addressMapper::toDTO);
+
+        Function<Long, Link> selfLink = selfLinkFactory.addresses();
+        return pagedResourcesAssembler.toModel(addressDTOPage, address -> EntityModel.of(address, selfLink.apply(address.getId())));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<RegionCountDTO> getStateCounts() {
+        return toRegionCountDTOs(addressRegionCountRepository.findByCityOrderByState(AddressRegionCount.WHOLE_STATE), false);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<RegionCountDTO> getCityCounts(String state) {
+        return toRegionCountDTOs(addressRegionCountRepository.findByStateAndCityNotOrderByCity(state, AddressRegionCount.WHOLE_STATE), true);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPagedModel<EntityModel<AddressDTO>> getAddressesByCursor(String cursor, int size, boolean withTotal) {
+        int pageSize = KeysetSlice.clampSize(size);
+        KeysetSlice<Address> slice = KeysetSlice.fetch(KeysetCursor.decode(cursor), pageSize,
+                addressRepository::findByIdGreaterThanOrderByIdAsc, addressRepository::findByIdLessThanOrderByIdDesc,
+                Address::getId);
+
+        List<EntityModel<AddressDTO>> content = new ArrayList<>(slice.getContent().size());
+        Function<Long, Link> selfLink = selfLinkFactory.addresses();
+        for (Address address : slice.getContent()) {
+            content.add(EntityModel.of(addressMapper.toDTO(address), selfLink.apply(address.getId())));
+        }
+
+        List<Link> links = new ArrayList<>(3);
+        links.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AddressResource.class)
+                .getAddressesByCursor(cursor, pageSize, withTotal)).withSelfRel().expand());
+        if (slice.getNext() != null) {
+            links.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AddressResource.class)
+                    .getAddressesByCursor(slice.getNext().encode(), pageSize, withTotal)).withRel(IanaLinkRelations.NEXT));
+        }
+        if (slice.getPrevious() != null) {
+            links.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AddressResource.class)
+                    .getAddressesByCursor(slice.getPrevious().encode(), pageSize, withTotal)).withRel(IanaLinkRelations.PREV));
+        }
 
-        return pagedResourcesAssembler.toModel(addressDTOPage, address -> EntityModel.of(address,
-                WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AddressResource.class)
-                                .getAddressById(address.getId()))
-                        .withSelfRel()));
+        return new CursorPagedModel<>(content, links, pageSize, withTotal ? addressRepository.count() : null);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public EntityModel<AddressDTO> getAddressById(Long id) {
-        Address address = getAddressByIdOrElseThrow(id);
-        AddressDTO addressDTO = modelMapper.map(address, AddressDTO.class);
-        EntityModel<AddressDTO> entityModel = EntityModel.of(addressDTO);
+        AddressDTO addressDTO = readCache.getAddress(id, () -> addressMapper.toDTO(getAddressByIdOrElseThrow(id)));
 
-        entityModel.add(Link.of(String.valueOf(WebMvcLinkBuilder.linkTo(AddressResource.class).withRel("addresses"))));
+        return EntityModel.of(addressDTO, selfLinkFactory.addressesCollection());
+    }
 
-        return entityModel;
+    @Override
+    public Optional<Long> getAddressVersion(Long id) {
+        return addressRepository.findVersionById(id);
     }
 
     @Transactional
@@ -66,34 +180,133 @@ public class AddressUseCaseImpl implements AddressUseCase {
     public AddressDTO createAddress(AddressDTO addressDTO, Long personId) {
         Person person = getPersonByIdOrElseThrow(personId);
 
-        Address address = modelMapper.map(addressDTO, Address.class);
+        Address address = addressMapper.toEntity(addressDTO);
         address.setPerson(person);
+        readCacheEvictor.evictPerson(personId);
+        if (address.isMainAddress()) {
+            demoteMainAddresses(person);
+        }
+        List<AddressRegion> before = addressRegionCounter.regionsOfPerson(personId);
         Address savedAddress = addressRepository.save(address);
-        return modelMapper.map(savedAddress, AddressDTO.class);
+        person.touch();
+        addressRegionCounter.apply(before, with(before, null, AddressRegion.of(savedAddress)));
+        changeLog.recordAddress(ChangeAction.CREATED, savedAddress.getId(), personId);
+        personReadModel.markChanged(personId);
+        return addressMapper.toDTO(savedAddress);
     }
 
     @Transactional
     @Override
-    public AddressDTO updateAddress(AddressDTO addressDTO, Long id) {
-        Address existingAddress = getAddressByIdOrElseThrow(id);
-        modelMapper.map(addressDTO, existingAddress);
-        Address updatedAddress = addressRepository.save(existingAddress);
-        return modelMapper.map(updatedAddress, AddressDTO.class);
+    public AddressDTO updateAddress(AddressDTO addressDTO, Long id, Long expectedVersion) {
+        return applyUpdate(addressDTO, getAddressForUpdate(id, expectedVersion));
+    }
+
+    @Transactional
+    @Override
+    public AddressDTO patchAddress(JsonNode patch, Long id, Long expectedVersion) {
+        Address existingAddress = getAddressForUpdate(id, expectedVersion);
+        return applyUpdate(jsonMergePatcher.apply(patch, addressMapper.toDTO(existingAddress)), existingAddress);
+    }
+
+    private Address getAddressForUpdate(Long id, Long expectedVersion) {
+        Address address = getAddressByIdOrElseThrow(id);
+        if (expectedVersion != null && address.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("O endereço foi alterado desde a versão informada no If-Match");
+        }
+        return address;
+    }
+
+    private AddressDTO applyUpdate(AddressDTO addressDTO, Address existingAddress) {
+        readCacheEvictor.evictAddressWithOwner(existingAddress);
+        AddressRegion previousRegion = AddressRegion.of(existingAddress);
+        List<AddressRegion> before = null;
+        if (existingAddress.getPerson() != null
+                && !Objects.equals(previousRegion, new AddressRegion(addressDTO.getState(), addressDTO.getCity()))) {
+            before = addressRegionCounter.regionsOfPerson(existingAddress.getPerson().getId());
+        }
+        if (addressMapper.updateEntity(addressDTO, existingAddress)) {
+            Person owner = existingAddress.getPerson();
+            if (owner != null) {
+                owner.touch();
+                personReadModel.markChanged(owner.getId());
+            }
+            changeLog.recordAddress(ChangeAction.UPDATED, existingAddress.getId(), owner != null ? owner.getId() : null);
+        }
+        Address updatedAddress = addressRepository.saveAndFlush(existingAddress);
+        if (before != null) {
+            addressRegionCounter.apply(before, with(before, previousRegion, AddressRegion.of(updatedAddress)));
+        }
+        return addressMapper.toDTO(updatedAddress);
     }
 
     @Transactional
     @Override
     public void deleteAddress(Long id) {
-        addressRepository.deleteById(id);
+        addressRepository.findById(id).ifPresent(address -> {
+            readCacheEvictor.evictAddressWithOwner(address);
+            if (address.getPerson() != null) {
+                List<AddressRegion> before = addressRegionCounter.regionsOfPerson(address.getPerson().getId());
+                addressRegionCounter.apply(before, with(before, AddressRegion.of(address), null));
+                address.getPerson().touch();
+                personReadModel.markChanged(address.getPerson().getId());
+            }
+            changeLog.recordAddress(ChangeAction.DELETED, address.getId(),
+                    address.getPerson() != null ? address.getPerson().getId() : null);
+            addressRepository.delete(address);
+        });
     }
 
+    @Transactional
     @Override
     public void setMainAddress(Long addressId, Long personId) {
-        Person person = getPersonByIdOrElseThrow(personId);
-        Address address = getAddressByIdOrElseThrow(addressId);
+        List<Long> addressIds = addressRepository.switchMainAddress(addressId, personId);
+        if (addressIds.isEmpty()) {
+            if (!personRepository.existsById(personId)) {
+                throw new ResourceNotFoundException("Pessoa não encontrada com o ID: " + personId);
+            }
+            throw new ResourceNotFoundException("Endereço não encontrada com o ID: " + addressId);
+        }
+
+        getPersonByIdOrElseThrow(personId).touch();
+        readCacheEvictor.evictPerson(personId);
+        addressIds.forEach(readCacheEvictor::evictAddress);
+        changeLog.recordAddress(ChangeAction.UPDATED, addressId, personId);
+        personReadModel.markChanged(personId);
+    }
+
+    /**
+     * A new main address takes over from the current one; the person may hold only one at commit.
+     */
+    private void demoteMainAddresses(Person person) {
+        for (Address existing : person.getAddress()) {
+            if (existing.isMainAddress()) {
+                existing.setMainAddress(false);
+                readCacheEvictor.evictAddress(existing.getId());
+                changeLog.recordAddress(ChangeAction.UPDATED, existing.getId(), person.getId());
+            }
+        }
+    }
+
+    private static List<AddressRegion> with(List<AddressRegion> regions, AddressRegion removed, AddressRegion added) {
+        List<AddressRegion> result = new ArrayList<>(regions);
+        if (removed != null) {
+            result.remove(removed);
+        }
+        if (added != null) {
+            result.add(added);
+        }
+        return result;
+    }
 
-        person.getAddress().forEach(a -> a.setMainAddress(a.getId().equals(addressId)));
-        personRepository.save(person);
+    private static List<RegionCountDTO> toRegionCountDTOs(List<AddressRegionCount> counts, boolean withCity) {
+        List<RegionCountDTO> result = new ArrayList<>(counts.size());
+        for (AddressRegionCount count : counts) {
+            if (count.getAddresses() > 0) {
+                result.add(new RegionCountDTO(count.getState(), withCity ? count.getCity() : null,
+                        count.getAddresses(), count.getPeople()));
+            }
+        }
+        return result;
     }
 
     private Person getPersonByIdOrElseThrow(Long id) {
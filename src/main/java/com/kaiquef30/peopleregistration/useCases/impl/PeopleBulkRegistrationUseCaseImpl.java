@@ -0,0 +1,166 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.kaiquef30.peopleregistration.audit.ChangeAction;
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationItemDTO;
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationResultDTO;
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationStatus;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import com.kaiquef30.peopleregistration.index.EmailIndex;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.useCases.PeopleBulkRegistrationUseCase;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registers a batch of people in one transaction. Items are validated individually, email conflicts are resolved
+ * with a single set-based lookup per chunk (skipping emails the {@link EmailIndex} rules out), and the accepted people are inserted through Hibernate's JDBC batching,
+ * which the pooled sequence generators on {@link Person} and its addresses make possible.
+ */
+@Service
+public class PeopleBulkRegistrationUseCaseImpl implements PeopleBulkRegistrationUseCase {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private static final int EMAIL_LOOKUP_CHUNK = 500;
+
+    private final PersonRepository personRepository;
+
+    private final PersonMapper personMapper;
+
+    private final Validator validator;
+
+    private final EmailIndex emailIndex;
+
+    private final AddressRegionCounter addressRegionCounter;
+
+    private final ChangeLog changeLog;
+
+    private final PersonReadModel personReadModel;
+
+    public PeopleBulkRegistrationUseCaseImpl(PersonRepository personRepository, PersonMapper personMapper,
+                                             Validator validator, EmailIndex emailIndex,
+                                             AddressRegionCounter addressRegionCounter, ChangeLog changeLog,
+                                             PersonReadModel personReadModel) {
+        this.personRepository = personRepository;
+        this.personMapper = personMapper;
+        this.validator = validator;
+        this.emailIndex = emailIndex;
+        this.addressRegionCounter = addressRegionCounter;
+        this.changeLog = changeLog;
+        this.personReadModel = personReadModel;
+    }
+
+    @Transactional
+    @Override
+    public BulkRegistrationResultDTO registerPeople(List<PersonDTO> people) {
+        if (people == null || people.isEmpty()) {
+            throw new BadRequestException("O lote de cadastro está vazio");
+        }
+        if (people.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("O lote de cadastro excede o limite de " + MAX_BATCH_SIZE + " pessoas");
+        }
+
+        BulkRegistrationItemDTO[] items = new BulkRegistrationItemDTO[people.size()];
+        Set<String> candidateEmails = new LinkedHashSet<>();
+        for (int i = 0; i < people.size(); i++) {
+            PersonDTO personDTO = people.get(i);
+            List<String> errors = validate(personDTO);
+            if (!errors.isEmpty()) {
+                items[i] = new BulkRegistrationItemDTO(i, personDTO != null ? personDTO.getEmail() : null,
+                        BulkRegistrationStatus.INVALID, null, errors);
+            } else if (emailIndex.mightContain(personDTO.getEmail())) {
+                candidateEmails.add(personDTO.getEmail());
+            }
+        }
+
+        Set<String> takenEmails = findExistingEmails(candidateEmails);
+
+        List<Person> accepted = new ArrayList<>(people.size());
+        int[] acceptedIndexes = new int[people.size()];
+        for (int i = 0; i < people.size(); i++) {
+            if (items[i] != null) {
+                continue;
+            }
+            PersonDTO personDTO = people.get(i);
+            Person person = personMapper.toEntity(personDTO);
+            if (person.countMainAddresses() > 1) {
+                items[i] = new BulkRegistrationItemDTO(i, personDTO.getEmail(), BulkRegistrationStatus.CONFLICT, null,
+                        List.of("Uma pessoa pode ter apenas um endereço principal"));
+                continue;
+            }
+            if (!takenEmails.add(personDTO.getEmail())) {
+                items[i] = new BulkRegistrationItemDTO(i, personDTO.getEmail(), BulkRegistrationStatus.CONFLICT, null,
+                        List.of("Já existe uma pessoa cadastrada com o e-mail: " + personDTO.getEmail()));
+                continue;
+            }
+            acceptedIndexes[accepted.size()] = i;
+            accepted.add(person);
+        }
+
+        List<Person> saved = personRepository.saveAll(accepted);
+        AddressRegionCounter.Deltas regionDeltas = new AddressRegionCounter.Deltas();
+        for (int i = 0; i < saved.size(); i++) {
+            Person person = saved.get(i);
+            emailIndex.add(person.getEmail());
+            regionDeltas.add(List.of(), AddressRegionCounter.regionsOf(person.getAddress()));
+            changeLog.recordPerson(ChangeAction.CREATED, person.getId());
+            personReadModel.markChanged(person.getId());
+            int index = acceptedIndexes[i];
+            items[index] = new BulkRegistrationItemDTO(index, person.getEmail(), BulkRegistrationStatus.CREATED,
+                    person.getId(), null);
+        }
+
+        addressRegionCounter.apply(regionDeltas);
+
+        return new BulkRegistrationResultDTO(Arrays.asList(items));
+    }
+
+    private List<String> validate(PersonDTO personDTO) {
+        if (personDTO == null) {
+            return List.of("Pessoa não informada");
+        }
+        Set<ConstraintViolation<PersonDTO>> violations = validator.validate(personDTO);
+        if (violations.isEmpty()) {
+            return List.of();
+        }
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<PersonDTO> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        errors.sort(null);
+        return errors;
+    }
+
+    private Set<String> findExistingEmails(Set<String> emails) {
+        Set<String> existing = new HashSet<>();
+        if (emails.isEmpty()) {
+            return existing;
+        }
+        List<String> chunk = new ArrayList<>(Math.min(emails.size(), EMAIL_LOOKUP_CHUNK));
+        for (String email : emails) {
+            chunk.add(email);
+            if (chunk.size() == EMAIL_LOOKUP_CHUNK) {
+                existing.addAll(personRepository.findExistingEmails(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            existing.addAll(personRepository.findExistingEmails(chunk));
+        }
+        return existing;
+    }
+}
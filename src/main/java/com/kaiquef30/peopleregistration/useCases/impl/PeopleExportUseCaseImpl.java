@@ -0,0 +1,123 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonExportRow;
+import com.kaiquef30.peopleregistration.useCases.PeopleExportFormat;
+import com.kaiquef30.peopleregistration.useCases.PeopleExportUseCase;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams the registry straight from a database cursor to the response. Rows are scalar projections, so nothing
+ * accumulates in the persistence context and heap usage stays flat regardless of table size.
+ */
+@Service
+public class PeopleExportUseCaseImpl implements PeopleExportUseCase {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final PersonRepository personRepository;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final XmlFactory xmlFactory = new XmlFactory();
+
+    public PeopleExportUseCaseImpl(PersonRepository personRepository) {
+        this.personRepository = personRepository;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportPeople(OutputStream outputStream, PeopleExportFormat format) throws IOException {
+        boolean xml = format == PeopleExportFormat.XML;
+        try (Stream<PersonExportRow> rows = personRepository.streamExportRows();
+             JsonGenerator generator = xml ? xmlFactory.createGenerator(outputStream) : jsonFactory.createGenerator(outputStream)) {
+            if (xml) {
+                ((ToXmlGenerator) generator).setNextName(new QName("people"));
+                generator.writeStartObject();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+
+            Long currentId = null;
+            int written = 0;
+            Iterator<PersonExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                PersonExportRow row = iterator.next();
+                if (!Objects.equals(currentId, row.id())) {
+                    if (currentId != null) {
+                        endPerson(generator, xml);
+                        if (++written % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    }
+                    startPerson(generator, row, xml);
+                    currentId = row.id();
+                }
+                if (row.addressId() != null) {
+                    writeAddress(generator, row, xml);
+                }
+            }
+            if (currentId != null) {
+                endPerson(generator, xml);
+            }
+
+            if (xml) {
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private static void startPerson(JsonGenerator generator, PersonExportRow row, boolean xml) throws IOException {
+        if (xml) {
+            generator.writeFieldName("person");
+        }
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.id());
+        generator.writeStringField("fullName", row.fullName());
+        generator.writeStringField("email", row.email());
+        generator.writeStringField("birthDate", row.birthDate() != null ? row.birthDate().toString() : null);
+        generator.writeFieldName("address");
+        if (xml) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartArray();
+        }
+    }
+
+    private static void writeAddress(JsonGenerator generator, PersonExportRow row, boolean xml) throws IOException {
+        if (xml) {
+            generator.writeFieldName("address");
+        }
+        generator.writeStartObject();
+        generator.writeStringField("street", row.street());
+        generator.writeStringField("cep", row.cep());
+        generator.writeStringField("number", row.number());
+        generator.writeStringField("city", row.city());
+        generator.writeStringField("state", row.state());
+        generator.writeBooleanField("mainAddress", Boolean.TRUE.equals(row.mainAddress()));
+        generator.writeEndObject();
+    }
+
+    private static void endPerson(JsonGenerator generator, boolean xml) throws IOException {
+        if (xml) {
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } else {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+}
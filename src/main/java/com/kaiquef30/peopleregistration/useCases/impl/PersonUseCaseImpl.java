@@ -1,90 +1,316 @@
 package com.kaiquef30.peopleregistration.useCases.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kaiquef30.peopleregistration.audit.ChangeAction;
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCache;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCacheEvictor;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
 import com.kaiquef30.peopleregistration.dtos.PersonDTO;
-import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.dtos.PersonField;
 import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
 import com.kaiquef30.peopleregistration.exceptions.ConflictException;
+import com.kaiquef30.peopleregistration.exceptions.PreconditionFailedException;
 import com.kaiquef30.peopleregistration.exceptions.ResourceNotFoundException;
+import com.kaiquef30.peopleregistration.index.EmailIndex;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.mappers.JsonMergePatcher;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.pagination.CursorPagedModel;
+import com.kaiquef30.peopleregistration.pagination.KeysetCursor;
+import com.kaiquef30.peopleregistration.pagination.KeysetSlice;
+import com.kaiquef30.peopleregistration.readmodel.PersonDocumentRenderer;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.AddressRepository;
 import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressRegion;
+import com.kaiquef30.peopleregistration.repositories.projections.AddressSummary;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import com.kaiquef30.peopleregistration.repositories.projections.RenderedPerson;
 import com.kaiquef30.peopleregistration.resources.PersonResource;
+import com.kaiquef30.peopleregistration.resources.SelfLinkFactory;
+import com.kaiquef30.peopleregistration.search.SearchText;
 import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
-import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 public class PersonUseCaseImpl implements PersonUseCase {
 
+    private static final int MIN_SEARCH_LENGTH = 3;
+
     private final PersonRepository personRepository;
 
-    private final ModelMapper modelMapper;
+    private final PersonMapper personMapper;
 
     private final PagedResourcesAssembler<PersonDTO> pagedResourcesAssembler;
 
-    public PersonUseCaseImpl(PersonRepository personRepository, ModelMapper modelMapper,
-                             PagedResourcesAssembler<PersonDTO> pagedResourcesAssembler) {
+    private final ReadCacheEvictor readCacheEvictor;
+
+    private final EmailIndex emailIndex;
+
+    private final AddressRegionCounter addressRegionCounter;
+
+    private final JsonMergePatcher jsonMergePatcher;
+
+    private final SelfLinkFactory selfLinkFactory;
+
+    private final ChangeLog changeLog;
+
+    private final AddressRepository addressRepository;
+
+    private final AddressMapper addressMapper;
+
+    private final PersonReadModel personReadModel;
+
+    private final PersonDocumentRenderer personDocumentRenderer;
+
+    private final ReadCache readCache;
+
+    public PersonUseCaseImpl(PersonRepository personRepository, PersonMapper personMapper,
+                             PagedResourcesAssembler<PersonDTO> pagedResourcesAssembler,
+                             ReadCacheEvictor readCacheEvictor, EmailIndex emailIndex,
+                             AddressRegionCounter addressRegionCounter, JsonMergePatcher jsonMergePatcher,
+                             SelfLinkFactory selfLinkFactory, ChangeLog changeLog,
+                             AddressRepository addressRepository, AddressMapper addressMapper,
+                             PersonReadModel personReadModel, PersonDocumentRenderer personDocumentRenderer,
+                             ReadCache readCache) {
         this.personRepository = personRepository;
-        this.modelMapper = modelMapper;
+        this.personMapper = personMapper;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.readCacheEvictor = readCacheEvictor;
+        this.emailIndex = emailIndex;
+        this.addressRegionCounter = addressRegionCounter;
+        this.jsonMergePatcher = jsonMergePatcher;
+        this.selfLinkFactory = selfLinkFactory;
+        this.changeLog = changeLog;
+        this.addressRepository = addressRepository;
+        this.addressMapper = addressMapper;
+        this.personReadModel = personReadModel;
+        this.personDocumentRenderer = personDocumentRenderer;
+        this.readCache = readCache;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public PagedModel<EntityModel<PersonDTO>> getAllPeople(Pageable pageable) {
-        Page<Person> personPage = personRepository.findAll(pageable);
+        Page<Person> personPage = personRepository.findAllWithAddress(pageable);
+
+        Page<PersonDTO> personDTOPage = personPage.map(personMapper::toDTO);
+
+        Function<Long, Link> selfLink = selfLinkFactory.people();
+        return pagedResourcesAssembler.toModel(personDTOPage, person -> EntityModel.of(person, selfLink.apply(person.getId())));
+    }
+
+    /**
+     * Reads only the requested columns. Addresses are read as plain rows, in one extra statement, and only when
+     * they were asked for.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public PagedModel<EntityModel<PersonDTO>> getAllPeople(Pageable pageable, Set<PersonField> fields) {
+        Page<PersonSummary> summaryPage = personRepository.findSummaries(PersonField.attributesOf(fields), pageable);
 
-        Page<PersonDTO> personDTOPage = personPage.map(person -> modelMapper.map(person, PersonDTO.class));
+        Map<Long, List<AddressDTO>> addresses = fields.contains(PersonField.ADDRESS)
+                ? addressesByPersonId(summaryPage.getContent()) : null;
+        Page<PersonDTO> personDTOPage = summaryPage.map(summary -> personMapper.toDTO(summary,
+                addresses == null ? null : addresses.getOrDefault(summary.id(), new ArrayList<>())));
 
-        return pagedResourcesAssembler.toModel(personDTOPage, person -> EntityModel.of(person,
-                WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonResource.class).getPersonById(person.getId()))
-                        .withSelfRel()));
+        Function<Long, Link> selfLink = selfLinkFactory.people();
+        return pagedResourcesAssembler.toModel(personDTOPage, person -> EntityModel.of(person, selfLink.apply(person.getId())));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPagedModel<EntityModel<PersonDTO>> getPeopleByCursor(String cursor, int size, boolean withTotal) {
+        int pageSize = KeysetSlice.clampSize(size);
+        KeysetSlice<Long> slice = KeysetSlice.fetch(KeysetCursor.decode(cursor), pageSize,
+                personRepository::findIdsAfter, personRepository::findIdsBefore, Long::longValue);
+
+        List<EntityModel<PersonDTO>> content = new ArrayList<>(slice.getContent().size());
+        Function<Long, Link> selfLink = selfLinkFactory.people();
+        for (Person person : personRepository.findAllWithAddressInOrder(slice.getContent())) {
+            PersonDTO personDTO = personMapper.toDTO(person);
+            content.add(EntityModel.of(personDTO, selfLink.apply(personDTO.getId())));
+        }
+
+        List<Link> links = new ArrayList<>(3);
+        links.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonResource.class)
+                .getPeopleByCursor(cursor, pageSize, withTotal)).withSelfRel().expand());
+        if (slice.getNext() != null) {
+            links.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonResource.class)
+                    .getPeopleByCursor(slice.getNext().encode(), pageSize, withTotal)).withRel(IanaLinkRelations.NEXT));
+        }
+        if (slice.getPrevious() != null) {
+            links.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonResource.class)
+                    .getPeopleByCursor(slice.getPrevious().encode(), pageSize, withTotal)).withRel(IanaLinkRelations.PREV));
+        }
+
+        return new CursorPagedModel<>(content, links, pageSize, withTotal ? personRepository.count() : null);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PagedModel<EntityModel<PersonDTO>> searchPeople(String query, Pageable pageable) {
+        if (SearchText.normalize(query).length() < MIN_SEARCH_LENGTH) {
+            throw new BadRequestException("O termo de busca deve ter ao menos " + MIN_SEARCH_LENGTH + " caracteres");
+        }
+        Page<Person> personPage = personRepository.searchWithAddress(SearchText.containsPattern(query), pageable);
+
+        Page<PersonDTO> personDTOPage = personPage.map(personMapper::toDTO);
+
+        Function<Long, Link> selfLink = selfLinkFactory.people();
+        return pagedResourcesAssembler.toModel(personDTOPage, person -> EntityModel.of(person, selfLink.apply(person.getId())));
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public EntityModel<PersonDTO> getPersonById(Long id) {
-        Person person = getPersonByIdOrElseThrow(id);
-        PersonDTO personDTO = modelMapper.map(person, PersonDTO.class);
-        EntityModel<PersonDTO> entityModel = EntityModel.of(personDTO);
+        PersonDTO personDTO = readCache.getPerson(id, () -> personMapper.toDTO(getPersonByIdOrElseThrow(id)));
+
+        return EntityModel.of(personDTO, selfLinkFactory.peopleCollection());
+    }
 
-        entityModel.add(Link.of(String.valueOf(WebMvcLinkBuilder.linkTo(PersonResource.class).withRel("Persons"))));
+    @Transactional(readOnly = true)
+    @Override
+    public EntityModel<PersonDTO> getPersonById(Long id, Set<PersonField> fields) {
+        List<String> attributes = PersonField.attributesOf(fields);
+        attributes.add("modifiedAt");
+        PersonSummary summary = personRepository.findSummaryById(id, attributes)
+                .orElseThrow(() -> new ResourceNotFoundException("Pessoa não encontrada com o ID: " + id));
+
+        List<AddressDTO> addresses = fields.contains(PersonField.ADDRESS)
+                ? addressesByPersonId(List.of(summary)).getOrDefault(id, new ArrayList<>()) : null;
+        EntityModel<PersonDTO> entityModel = EntityModel.of(personMapper.toDTO(summary, addresses));
+
+        entityModel.add(selfLinkFactory.peopleCollection());
 
         return entityModel;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public RenderedPerson getRenderedPerson(Long id) {
+        RenderedPerson person = personReadModel.getDocument(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pessoa não encontrada com o ID: " + id));
+        return new RenderedPerson(person.version(),
+                personDocumentRenderer.withLink(person.json(), selfLinkFactory.peopleCollection()));
+    }
+
+    @Override
+    public Optional<Long> getPersonVersion(Long id) {
+        return personRepository.findModifiedAtById(id).map(Person::toEpochMicros);
+    }
+
     @Transactional
     @Override
     public PersonDTO createPerson(PersonDTO personDTO) {
-        Person person = modelMapper.map(personDTO, Person.class);
-
         getPersonByEmailOrElseThrow(personDTO.getEmail());
 
-        for (Address address : person.getAddress()) {
-            address.setPerson(person);
-        }
+        Person person = personMapper.toEntity(personDTO);
+        requireAtMostOneMainAddress(person);
         Person savedPerson = personRepository.save(person);
+        emailIndex.add(savedPerson.getEmail());
+        addressRegionCounter.apply(List.of(), AddressRegionCounter.regionsOf(savedPerson.getAddress()));
+        changeLog.recordPerson(ChangeAction.CREATED, savedPerson.getId());
+        personReadModel.markChanged(savedPerson.getId());
 
-        return modelMapper.map(savedPerson, PersonDTO.class);
+        return personMapper.toDTO(savedPerson);
     }
 
     @Transactional
     @Override
-    public PersonDTO updatePerson(PersonDTO personDTO, Long id) {
-        Person existingPerson = getPersonByIdOrElseThrow(id);
-        modelMapper.map(personDTO, existingPerson);
-        Person updatedPerson = personRepository.save(existingPerson);
-        return modelMapper.map(updatedPerson, PersonDTO.class);
+    public PersonDTO updatePerson(PersonDTO personDTO, Long id, Long expectedVersion) {
+        return applyUpdate(personDTO, getPersonForUpdate(id, expectedVersion));
+    }
+
+    @Transactional
+    @Override
+    public PersonDTO patchPerson(JsonNode patch, Long id, Long expectedVersion) {
+        Person existingPerson = getPersonForUpdate(id, expectedVersion);
+        return applyUpdate(jsonMergePatcher.apply(patch, personMapper.toDTO(existingPerson)), existingPerson);
     }
 
     @Transactional
     @Override
     public void deletePerson(Long id) {
-        personRepository.deleteById(id);
+        personRepository.findById(id).ifPresent(person -> {
+            readCacheEvictor.evictPersonWithAddresses(person);
+            addressRegionCounter.apply(AddressRegionCounter.regionsOf(person.getAddress()), List.of());
+            personRepository.delete(person);
+            emailIndex.removeAfterCommit(person.getEmail());
+            changeLog.recordPerson(ChangeAction.DELETED, person.getId());
+            personReadModel.markChanged(person.getId());
+        });
+    }
+
+    private Person getPersonForUpdate(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return getPersonByIdOrElseThrow(id);
+        }
+        Person person = personRepository.findForUpdateById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pessoa não encontrada com o ID: " + id));
+        if (Person.toEpochMicros(person.getModifiedAt()) != expectedVersion) {
+            throw new PreconditionFailedException("A pessoa foi alterada desde a versão informada no If-Match");
+        }
+        return person;
+    }
+
+    /**
+     * Copies the DTO onto the managed person and flushes, so only the columns that actually changed are written and
+     * the returned DTO carries the new version.
+     */
+    private PersonDTO applyUpdate(PersonDTO personDTO, Person existingPerson) {
+        readCacheEvictor.evictPersonWithAddresses(existingPerson);
+        String previousEmail = existingPerson.getEmail();
+        List<AddressRegion> previousRegions = AddressRegionCounter.regionsOf(existingPerson.getAddress());
+        if (personMapper.updateEntity(personDTO, existingPerson)) {
+            requireAtMostOneMainAddress(existingPerson);
+            existingPerson.touch();
+            changeLog.recordPerson(ChangeAction.UPDATED, existingPerson.getId());
+            personReadModel.markChanged(existingPerson.getId());
+        }
+        Person updatedPerson = personRepository.saveAndFlush(existingPerson);
+        addressRegionCounter.apply(previousRegions, AddressRegionCounter.regionsOf(updatedPerson.getAddress()));
+        if (!Objects.equals(previousEmail, updatedPerson.getEmail())) {
+            emailIndex.add(updatedPerson.getEmail());
+            emailIndex.removeAfterCommit(previousEmail);
+        }
+        return personMapper.toDTO(updatedPerson);
+    }
+
+    private Map<Long, List<AddressDTO>> addressesByPersonId(List<PersonSummary> people) {
+        Map<Long, List<AddressDTO>> addresses = new HashMap<>();
+        if (people.isEmpty()) {
+            return addresses;
+        }
+
+        List<Long> personIds = new ArrayList<>(people.size());
+        for (PersonSummary person : people) {
+            personIds.add(person.id());
+        }
+        for (AddressSummary address : addressRepository.findSummariesByPersonIdIn(personIds)) {
+            addresses.computeIfAbsent(address.personId(), personId -> new ArrayList<>()).add(addressMapper.toDTO(address));
+        }
+        return addresses;
     }
 
     private Person getPersonByIdOrElseThrow(Long id) {
@@ -92,8 +318,14 @@ public class PersonUseCaseImpl implements PersonUseCase {
                 .orElseThrow(() -> new ResourceNotFoundException("Pessoa não encontrada com o ID: " + id));
     }
 
+    private static void requireAtMostOneMainAddress(Person person) {
+        if (person.countMainAddresses() > 1) {
+            throw new ConflictException("Uma pessoa pode ter apenas um endereço principal");
+        }
+    }
+
     private void getPersonByEmailOrElseThrow(String email) {
-        if (personRepository.existsByEmail(email)) {
+        if (emailIndex.mightContain(email) && personRepository.existsByEmail(email)) {
             throw new ConflictException("Já existe uma pessoa cadastrada com o e-mail: " + email);
         }
     }
@@ -0,0 +1,88 @@
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization).
+-- Statements are separated by @@ because PL/pgSQL bodies contain semicolons.
+
+-- Ids come from pooled sequences (allocationSize 50). On a database whose ids were generated before the sequences
+-- existed, ddl-auto creates them starting at 1; move each one past the highest id so new blocks never collide. Only
+-- ever moves a sequence forward, so re-running it is a no-op.
+DO $$
+DECLARE
+    target RECORD;
+    highest BIGINT;
+    last_used BIGINT;
+BEGIN
+    FOR target IN SELECT * FROM (VALUES ('tb_people', 'tb_people_seq'), ('tb_address', 'tb_address_seq')) AS t(tbl, seq)
+    LOOP
+        EXECUTE format('SELECT COALESCE(max(id), 0) + 50 FROM %I', target.tbl) INTO highest;
+        SELECT last_value INTO last_used FROM pg_sequences
+            WHERE schemaname = current_schema() AND sequencename = target.seq;
+        IF last_used IS NULL OR last_used < highest THEN
+            PERFORM setval(target.seq, highest);
+        END IF;
+    END LOOP;
+END
+$$
+@@
+
+-- At most one main address per person. Deferred to commit so moving the flag from one address to another never
+-- trips over the intermediate state, whatever order the updates are flushed in. Rows written before the constraint
+-- existed may hold several main addresses per person; they are not demoted here, since that would leave the owner's
+-- ETag and cached copies stale. The application refuses to start and lists them instead.
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_address_one_main_per_person') THEN
+        SELECT string_agg(format('person %s: addresses [%s]', person_id, ids), ', ') INTO conflicts
+        FROM (SELECT person_id, string_agg(id::text, ', ' ORDER BY id) AS ids FROM tb_address
+              WHERE is_main_address AND person_id IS NOT NULL GROUP BY person_id HAVING count(*) > 1) c;
+        IF conflicts IS NOT NULL THEN
+            RAISE EXCEPTION 'Cannot add ex_address_one_main_per_person: more than one main address for %', conflicts;
+        END IF;
+        ALTER TABLE tb_address ADD CONSTRAINT ex_address_one_main_per_person
+            EXCLUDE USING btree (person_id WITH =) WHERE (is_main_address)
+            DEFERRABLE INITIALLY DEFERRED;
+    END IF;
+END
+$$
+@@
+
+-- E-mails are unique (Person#EMAIL_CONSTRAINT). ddl-auto only tries to add the constraint and gives up quietly when
+-- the table already holds duplicates, so it is added here. Duplicates are customer data and are never rewritten at
+-- startup: the application refuses to start and lists the people sharing each e-mail, to be resolved by hand.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_people_email') THEN
+        SELECT string_agg(format('[%s]', ids), ', ') INTO duplicates
+        FROM (SELECT string_agg(id::text, ', ' ORDER BY id) AS ids FROM tb_people
+              WHERE email IS NOT NULL GROUP BY email HAVING count(*) > 1) d;
+        IF duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'Cannot add uk_people_email: tb_people ids sharing an e-mail: %', duplicates;
+        END IF;
+        ALTER TABLE tb_people ADD CONSTRAINT uk_people_email UNIQUE (email);
+    END IF;
+END
+$$
+@@
+
+-- Substring search on the folded name/e-mail key (PersonResource#searchPeople) uses a trigram index, so LIKE
+-- '%term%' costs in proportion to the matches instead of the table. pg_trgm is usually installed by a privileged
+-- role; when it is missing and this role may not create it, the index is skipped and search scans the table.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')
+            AND EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'pg_trgm') THEN
+        BEGIN
+            CREATE EXTENSION pg_trgm;
+        EXCEPTION WHEN insufficient_privilege THEN
+            RAISE WARNING 'pg_trgm is not installed and % may not create it; person search runs without its index',
+                current_user;
+        END;
+    END IF;
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        EXECUTE 'CREATE INDEX IF NOT EXISTS ix_people_search_key_trgm ON tb_people USING gin (search_key gin_trgm_ops)';
+    END IF;
+END
+$$
+@@
@@ -0,0 +1,129 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<List<ChangeEvent>> batches = new CopyOnWriteArrayList<>();
+
+    private final List<Boolean> forces = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch sinkReleased = new CountDownLatch(1);
+
+    private ChangeLog changeLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sinkReleased.countDown();
+        changeLog.stop();
+    }
+
+    @Test
+    void record_WhileWriterIsBusy_AppendsQueuedEventsInOneBatch() throws InterruptedException {
+        changeLog = start(blockingSink(), 100, ChangeLogDurability.BUFFERED);
+
+        changeLog.recordPerson(ChangeAction.CREATED, 1L);
+        awaitBatches(1);
+        for (long id = 2; id <= 6; id++) {
+            changeLog.recordPerson(ChangeAction.UPDATED, id);
+        }
+        sinkReleased.countDown();
+
+        assertTrue(changeLog.awaitDrained(5000));
+        assertEquals(2, batches.size());
+        assertEquals(5, batches.get(1).size());
+        assertEquals(6, meterRegistry.get("audit.events").tag("result", "written").counter().count());
+        assertEquals(List.of(false, false), forces);
+    }
+
+    @Test
+    void record_QueueFull_DropsAndCountsTheEvent() throws InterruptedException {
+        changeLog = start(blockingSink(), 1, ChangeLogDurability.BUFFERED);
+
+        changeLog.recordPerson(ChangeAction.CREATED, 1L);
+        awaitBatches(1);
+        changeLog.recordPerson(ChangeAction.CREATED, 2L);
+        changeLog.recordPerson(ChangeAction.CREATED, 3L);
+
+        assertEquals(1, meterRegistry.get("audit.events").tag("result", "dropped").counter().count());
+        sinkReleased.countDown();
+        assertTrue(changeLog.awaitDrained(5000));
+        assertEquals(2, meterRegistry.get("audit.events").tag("result", "written").counter().count());
+    }
+
+    @Test
+    void record_Durable_ReturnsAfterTheForcedAppend() {
+        sinkReleased.countDown();
+        changeLog = start((events, force) -> {
+            batches.add(List.copyOf(events));
+            forces.add(force);
+        }, 100, ChangeLogDurability.DURABLE);
+
+        changeLog.recordAddress(ChangeAction.DELETED, 7L, null);
+
+        assertEquals(1, batches.size());
+        ChangeEvent event = batches.get(0).get(0);
+        assertEquals(new ChangeEvent(ChangeSubject.ADDRESS, ChangeAction.DELETED, 7L, null, event.occurredAt()), event);
+        assertEquals(List.of(true), forces);
+    }
+
+    @Test
+    void record_InTransaction_QueuesOnlyAfterCommit() throws InterruptedException {
+        sinkReleased.countDown();
+        changeLog = start(blockingSink(), 100, ChangeLogDurability.BUFFERED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeLog.recordPerson(ChangeAction.DELETED, 1L);
+            assertTrue(changeLog.awaitDrained(200));
+            assertTrue(batches.isEmpty());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(changeLog.awaitDrained(5000));
+        assertEquals(1, batches.size());
+    }
+
+    private ChangeLog start(ChangeLogSink sink, int queueCapacity, ChangeLogDurability durability) {
+        var log = new ChangeLog(sink, meterRegistry, queueCapacity, 500, durability, 50, 5000);
+        log.start();
+        return log;
+    }
+
+    private ChangeLogSink blockingSink() {
+        return (events, force) -> {
+            batches.add(List.copyOf(events));
+            forces.add(force);
+            try {
+                sinkReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (batches.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, batches.size());
+    }
+}
@@ -0,0 +1,75 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import com.kaiquef30.peopleregistration.domains.ChangeLogEntry;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.repositories.ChangeLogEntryRepository;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class DatabaseChangeLogSinkTests {
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogEntryRepository;
+
+    @Test
+    void mutations_AreAppendedToTheChangeLogTable() throws InterruptedException {
+        PersonDTO created = personUseCase.createPerson(person());
+        Long addressId = created.getAddress().get(0).getId();
+        AddressDTO changed = address();
+        changed.setStreet("Rua Alterada");
+        addressUseCase.updateAddress(changed, addressId, null);
+        addressUseCase.updateAddress(changed, addressId, null);
+        personUseCase.deletePerson(created.getId());
+
+        assertTrue(changeLog.awaitDrained(5000));
+        assertEquals(List.of(ChangeAction.CREATED, ChangeAction.DELETED),
+                actions(changeLogEntryRepository.findBySubjectAndEntityIdOrderByIdAsc(ChangeSubject.PERSON, created.getId())));
+        List<ChangeLogEntry> addressEntries =
+                changeLogEntryRepository.findBySubjectAndEntityIdOrderByIdAsc(ChangeSubject.ADDRESS, addressId);
+        assertEquals(List.of(ChangeAction.UPDATED), actions(addressEntries));
+        assertEquals(created.getId(), addressEntries.get(0).getPersonId());
+    }
+
+    private static List<ChangeAction> actions(List<ChangeLogEntry> entries) {
+        return entries.stream().map(ChangeLogEntry::getAction).toList();
+    }
+
+    private static PersonDTO person() {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail("change-log@mail.com");
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address())));
+        return personDTO;
+    }
+
+    private static AddressDTO address() {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet("Rua das flores");
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kaiquef30.peopleregistration.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentFileChangeLogSinkTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ReopenedSink_ContinuesAfterTheLastRecord() throws IOException {
+        var first = List.of(event(ChangeSubject.PERSON, ChangeAction.CREATED, 1L, 1L),
+                event(ChangeSubject.ADDRESS, ChangeAction.CREATED, 10L, 1L));
+        var second = List.of(event(ChangeSubject.ADDRESS, ChangeAction.DELETED, 11L, null));
+
+        var sink = new SegmentFileChangeLogSink(directory, 4096);
+        sink.append(first, true);
+        sink.close();
+        var reopened = new SegmentFileChangeLogSink(directory, 4096);
+        reopened.append(second, false);
+        reopened.close();
+
+        assertEquals(List.of(first.get(0), first.get(1), second.get(0)),
+                SegmentFileChangeLogSink.read(SegmentFileChangeLogSink.segmentFile(directory, 0)));
+    }
+
+    @Test
+    void append_SegmentFull_RollsOverToTheNextSegment() throws IOException {
+        var sink = new SegmentFileChangeLogSink(directory, 2 * SegmentFileChangeLogSink.RECORD_SIZE);
+        var events = List.of(event(ChangeSubject.PERSON, ChangeAction.CREATED, 1L, 1L),
+                event(ChangeSubject.PERSON, ChangeAction.UPDATED, 1L, 1L),
+                event(ChangeSubject.PERSON, ChangeAction.DELETED, 1L, 1L));
+
+        sink.append(events, false);
+        sink.close();
+
+        assertEquals(events.subList(0, 2), SegmentFileChangeLogSink.read(SegmentFileChangeLogSink.segmentFile(directory, 0)));
+        assertEquals(events.subList(2, 3), SegmentFileChangeLogSink.read(SegmentFileChangeLogSink.segmentFile(directory, 1)));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private static ChangeEvent event(ChangeSubject subject, ChangeAction action, long entityId, Long personId) {
+        return new ChangeEvent(subject, action, entityId, personId, 1_700_000_000_000L + entityId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.kaiquef30.peopleregistration.index.EmailIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of the email index for registered and unregistered emails. The setup also prints the memory held by
+ * the hash tables per million emails and the measured false-positive rate over one million unregistered emails.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailIndexBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"100000", "1000000"})
+    private int emails;
+
+    private EmailIndex emailIndex;
+
+    private String[] present;
+
+    private String[] absent;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        emailIndex = new EmailIndex();
+        for (int i = 0; i < emails; i++) {
+            emailIndex.add("person" + i + "@mail.com");
+        }
+        emailIndex.markReady();
+
+        present = new String[PROBES];
+        absent = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            present[i] = "person" + (i * 7919L % emails) + "@mail.com";
+            absent[i] = "visitor" + i + "@mail.com";
+        }
+
+        long falsePositives = 0;
+        int negativeProbes = 1_000_000;
+        for (int i = 0; i < negativeProbes; i++) {
+            if (emailIndex.mightContain("unregistered" + i + "@mail.com")) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("%nemails=%d tableBytes=%d bytesPerMillion=%d falsePositiveRate=%.6f%n",
+                emails, emailIndex.tableBytes(), emailIndex.tableBytes() * 1_000_000L / emails,
+                falsePositives / (double) negativeProbes);
+    }
+
+    @Benchmark
+    public boolean registeredEmail() {
+        return emailIndex.mightContain(present[cursor++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean unregisteredEmail() {
+        return emailIndex.mightContain(absent[cursor++ & (PROBES - 1)]);
+    }
+}
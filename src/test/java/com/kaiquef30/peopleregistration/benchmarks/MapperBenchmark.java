@@ -0,0 +1,108 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with the GC profiler (the benchmark profile enables it) to get {@code gc.alloc.rate.norm} in bytes per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"1", "5"})
+    private int addresses;
+
+    private ModelMapper modelMapper;
+
+    private PersonMapper personMapper;
+
+    private Person person;
+
+    private PersonDTO personDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        personMapper = new PersonMapper(new AddressMapper());
+
+        person = new Person();
+        person.setId(42L);
+        person.setFullName("Maria Drummond Rodrigues");
+        person.setEmail("mariadrummond@outlook.com");
+        person.setBirthDate(LocalDate.of(2000, 4, 11));
+        List<AddressDTO> addressDTOs = new ArrayList<>();
+        for (int i = 0; i < addresses; i++) {
+            var address = new Address();
+            address.setId((long) i);
+            address.setStreet("Rua das flores");
+            address.setCep("0984-88");
+            address.setNumber(String.valueOf(i));
+            address.setCity("Tubarão");
+            address.setState("Santa Catarina");
+            address.setPerson(person);
+            person.getAddress().add(address);
+
+            var addressDTO = new AddressDTO();
+            addressDTO.setStreet("Rua das flores");
+            addressDTO.setCep("0984-88");
+            addressDTO.setNumber(String.valueOf(i));
+            addressDTO.setCity("Tubarão");
+            addressDTO.setState("Santa Catarina");
+            addressDTOs.add(addressDTO);
+        }
+
+        personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail("mariadrummond@outlook.com");
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(addressDTOs);
+    }
+
+    @Benchmark
+    public PersonDTO modelMapperToDTO() {
+        return modelMapper.map(person, PersonDTO.class);
+    }
+
+    @Benchmark
+    public PersonDTO handWrittenToDTO() {
+        return personMapper.toDTO(person);
+    }
+
+    @Benchmark
+    public Person modelMapperToEntity() {
+        return modelMapper.map(personDTO, Person.class);
+    }
+
+    @Benchmark
+    public Person handWrittenToEntity() {
+        return personMapper.toEntity(personDTO);
+    }
+
+    @Benchmark
+    public Person modelMapperUpdateInPlace() {
+        modelMapper.map(personDTO, person);
+        return person;
+    }
+
+    @Benchmark
+    public Person handWrittenUpdateInPlace() {
+        personMapper.updateEntity(personDTO, person);
+        return person;
+    }
+}
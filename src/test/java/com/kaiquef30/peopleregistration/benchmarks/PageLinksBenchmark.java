@@ -0,0 +1,76 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.resources.PersonResource;
+import com.kaiquef30.peopleregistration.resources.SelfLinkFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Wraps a page of people in {@link EntityModel}s with self links, once through {@code methodOn} proxies and once
+ * through {@link SelfLinkFactory}. Each invocation uses a fresh request, as a real page would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageLinksBenchmark {
+
+    @Param({"20", "200", "2000"})
+    private int pageSize;
+
+    private List<PersonDTO> people;
+
+    private SelfLinkFactory selfLinkFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        selfLinkFactory = new SelfLinkFactory();
+        people = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            var personDTO = new PersonDTO();
+            personDTO.setId((long) i);
+            personDTO.setFullName("Maria Drummond Rodrigues");
+            people.add(personDTO);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                new MockHttpServletRequest("GET", "/api/people")));
+    }
+
+    @Benchmark
+    public List<EntityModel<PersonDTO>> methodOnLinks() {
+        List<EntityModel<PersonDTO>> content = new ArrayList<>(people.size());
+        for (PersonDTO person : people) {
+            content.add(EntityModel.of(person,
+                    WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonResource.class).getPersonById(person.getId(), null, null))
+                            .withSelfRel()));
+        }
+        return content;
+    }
+
+    @Benchmark
+    public List<EntityModel<PersonDTO>> precomputedLinks() {
+        List<EntityModel<PersonDTO>> content = new ArrayList<>(people.size());
+        Function<Long, Link> selfLink = selfLinkFactory.people();
+        for (PersonDTO person : people) {
+            content.add(EntityModel.of(person, selfLink.apply(person.getId())));
+        }
+        return content;
+    }
+}
@@ -0,0 +1,121 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.kaiquef30.peopleregistration.PeopleRegistrationApplication;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.readmodel.PersonDocumentRenderer;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.useCases.PeopleBulkRegistrationUseCase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-person JSON reads against the embedded database: the stored read model document versus loading the person
+ * with its addresses, mapping and serializing it. Each operation is one read-only transaction, as in the use cases.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonReadModelBenchmark {
+
+    private static final int PEOPLE = 1000;
+
+    private static final int ADDRESSES_PER_PERSON = 3;
+
+    private ConfigurableApplicationContext context;
+
+    private PersonReadModel personReadModel;
+
+    private PersonRepository personRepository;
+
+    private PersonMapper personMapper;
+
+    private PersonDocumentRenderer personDocumentRenderer;
+
+    private TransactionTemplate readOnly;
+
+    private long[] personIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PeopleRegistrationApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:read-model;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "app.rate.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        personReadModel = context.getBean(PersonReadModel.class);
+        personRepository = context.getBean(PersonRepository.class);
+        personMapper = context.getBean(PersonMapper.class);
+        personDocumentRenderer = context.getBean(PersonDocumentRenderer.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<PersonDTO> people = new ArrayList<>(PEOPLE);
+        for (int i = 0; i < PEOPLE; i++) {
+            var person = new PersonDTO();
+            person.setFullName("Bench Person " + i);
+            person.setEmail("read-model-bench" + i + "@mail.com");
+            person.setBirthDate(LocalDate.of(1980, 1, 1).plusDays(i));
+            List<AddressDTO> addresses = new ArrayList<>(ADDRESSES_PER_PERSON);
+            for (int j = 0; j < ADDRESSES_PER_PERSON; j++) {
+                var address = new AddressDTO();
+                address.setStreet("Rua " + i + "-" + j);
+                address.setCep("88700-000");
+                address.setNumber(String.valueOf(j));
+                address.setCity("Tubarão");
+                address.setState("Santa Catarina");
+                addresses.add(address);
+            }
+            person.setAddress(addresses);
+            people.add(person);
+        }
+        context.getBean(PeopleBulkRegistrationUseCase.class).registerPeople(people);
+        personIds = personRepository.findAll().stream().mapToLong(Person::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class IdCursor {
+
+        private int next;
+
+        long nextId(long[] ids) {
+            next = next + 1 == ids.length ? 0 : next + 1;
+            return ids[next];
+        }
+    }
+
+    @Benchmark
+    public byte[] readModel(IdCursor cursor) {
+        long id = cursor.nextId(personIds);
+        return readOnly.execute(status -> personReadModel.getDocument(id).orElseThrow().json());
+    }
+
+    @Benchmark
+    public byte[] entity(IdCursor cursor) {
+        long id = cursor.nextId(personIds);
+        return readOnly.execute(status -> personDocumentRenderer.render(
+                personMapper.toDTO(personRepository.findById(id).orElseThrow())));
+    }
+}
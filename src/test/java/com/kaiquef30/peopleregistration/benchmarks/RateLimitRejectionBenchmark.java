@@ -0,0 +1,137 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.RateLimitFilter;
+import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.RateLimitPolicyRegistry;
+import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.RateLimitRejectionLog;
+import com.kaiquef30.peopleregistration.resources.AddressResource;
+import com.kaiquef30.peopleregistration.resources.PersonResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering a request whose budget is spent. {@code filterRejection} runs {@link RateLimitFilter} against the
+ * real resource mappings; {@code exceptionRejection} repeats what the former aspect and exception handler did per
+ * rejection (exception with a formatted message, error body with id and timestamp, stack trace rendered for the ERROR
+ * log line), minus MVC dispatch and the log appender, so it understates the old cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLimitRejectionBenchmark {
+
+    private static final FilterChain PASS = (request, response) -> {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RateLimitFilter filter;
+
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var context = new GenericWebApplicationContext(new MockServletContext());
+        context.registerBean(PersonResource.class, () -> new PersonResource(null, null, null, null));
+        context.registerBean(AddressResource.class, () -> new AddressResource(null, null));
+        context.refresh();
+        var handlerMapping = new RequestMappingHandlerMapping();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("requestMappingHandlerMapping", handlerMapping);
+
+        filter = new RateLimitFilter(new RateLimitPolicyRegistry(10, 60000, new SimpleMeterRegistry(), Optional.empty()),
+                beanFactory.getBeanProvider(RequestMappingHandlerMapping.class), new RateLimitRejectionLog());
+        request = new MockHttpServletRequest("GET", "/api/people/42");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response;
+        do {
+            response = filterRejection();
+        } while (response.getStatus() != 429);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterRejection() throws Exception {
+        var response = new BulkWriteResponse();
+        filter.doFilter(request, response, PASS);
+        return response;
+    }
+
+    @Benchmark
+    public byte[] exceptionRejection() throws Exception {
+        var exception = new RuntimeException(String.format(
+                "To many request at endpoint %s from %s! Please try again after %d milliseconds!",
+                request.getRequestURI(), request.getRemoteAddr(), 30000L));
+        Map<String, Object> body = new LinkedHashMap<>();
+        UUID id = UUID.randomUUID();
+        body.put("id", id);
+        body.put("status", 429);
+        body.put("error", "TOO_MANY_REQUESTS");
+        body.put("message", exception.getMessage());
+        body.put("timestamp", LocalDateTime.now(Clock.systemUTC()).toString());
+        body.put("path", request.getRequestURI());
+        StringWriter log = new StringWriter();
+        log.write(String.format("%s: %s", id, exception.getMessage()));
+        exception.printStackTrace(new PrintWriter(log));
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    /**
+     * The mock response writes and flushes byte by byte; the container writes arrays in one call.
+     */
+    static class BulkWriteResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+            private long written;
+
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written += len;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
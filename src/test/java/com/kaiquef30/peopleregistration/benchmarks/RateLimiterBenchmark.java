@@ -0,0 +1,116 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.SlidingWindowRateLimiter;
+import com.kaiquef30.peopleregistration.configs.rateLimitAnnotation.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int RATE_LIMIT = 10_000;
+    private static final long RATE_DURATION = 1_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int distinctKeys;
+
+    private String[] keys;
+
+    private LegacyRateLimiter legacyRateLimiter;
+
+    private SlidingWindowRateLimiter slidingWindowRateLimiter;
+
+    private TokenBucketRateLimiter tokenBucketRateLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[distinctKeys];
+        legacyRateLimiter = new LegacyRateLimiter(RATE_LIMIT, RATE_DURATION);
+        slidingWindowRateLimiter = new SlidingWindowRateLimiter(RATE_LIMIT, RATE_DURATION);
+        tokenBucketRateLimiter = new TokenBucketRateLimiter(RATE_LIMIT, RATE_LIMIT, RATE_DURATION, 0);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < distinctKeys; i++) {
+            keys[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+            legacyRateLimiter.requestCounts.computeIfAbsent(keys[i], k -> new ArrayList<>()).add(now);
+            slidingWindowRateLimiter.tryAcquire(keys[i], now);
+            tokenBucketRateLimiter.tryAcquire(keys[i], now);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class KeyCursor {
+
+        private int next;
+
+        String nextKey(String[] keys) {
+            next = next + 1 == keys.length ? 0 : next + 1;
+            return keys[next];
+        }
+    }
+
+    @Benchmark
+    public boolean legacyAspect(KeyCursor cursor) {
+        return legacyRateLimiter.tryAcquire(cursor.nextKey(keys), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean legacyAspectContended(KeyCursor cursor) {
+        return legacyRateLimiter.tryAcquire(cursor.nextKey(keys), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long slidingWindow(KeyCursor cursor) {
+        return slidingWindowRateLimiter.tryAcquire(cursor.nextKey(keys), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long slidingWindowContended(KeyCursor cursor) {
+        return slidingWindowRateLimiter.tryAcquire(cursor.nextKey(keys), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long tokenBucket(KeyCursor cursor) {
+        return tokenBucketRateLimiter.tryAcquire(cursor.nextKey(keys), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tokenBucketContended(KeyCursor cursor) {
+        return tokenBucketRateLimiter.tryAcquire(cursor.nextKey(keys), System.currentTimeMillis());
+    }
+
+    /**
+     * Copy of the algorithm previously implemented by {@code RateLimitAspect}, kept as the baseline.
+     */
+    static class LegacyRateLimiter {
+
+        private final ConcurrentHashMap<String, List<Long>> requestCounts = new ConcurrentHashMap<>();
+
+        private final int rateLimit;
+
+        private final long rateDuration;
+
+        LegacyRateLimiter(int rateLimit, long rateDuration) {
+            this.rateLimit = rateLimit;
+            this.rateDuration = rateDuration;
+        }
+
+        boolean tryAcquire(String key, long currentTime) {
+            requestCounts.putIfAbsent(key, new ArrayList<>());
+            requestCounts.get(key).add(currentTime);
+            requestCounts.values().forEach(l -> l.removeIf(t -> currentTime - t > rateDuration));
+            return requestCounts.get(key).size() <= rateLimit;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.kaiquef30.peopleregistration.PeopleRegistrationApplication;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCacheEvictor;
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Use-case throughput against the embedded database with the second-level cache on and off: the get-by-id reads with
+ * their DTO cache entry evicted first, so they reach Hibernate, and an update that changes nothing, which still looks
+ * the person and its addresses up as every write does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecondLevelCacheBenchmark {
+
+    private static final int PEOPLE = 1000;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+
+    private PersonUseCase personUseCase;
+
+    private AddressUseCase addressUseCase;
+
+    private ReadCacheEvictor readCacheEvictor;
+
+    private long[] personIds;
+
+    private long[] addressIds;
+
+    private PersonDTO[] personDTOs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PeopleRegistrationApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:l2-" + secondLevelCache
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "app.jpa.second-level-cache.enabled=" + secondLevelCache,
+                        "app.rate.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        personUseCase = context.getBean(PersonUseCase.class);
+        addressUseCase = context.getBean(AddressUseCase.class);
+        readCacheEvictor = context.getBean(ReadCacheEvictor.class);
+        PersonRepository personRepository = context.getBean(PersonRepository.class);
+        PersonMapper personMapper = context.getBean(PersonMapper.class);
+        TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Person> people = new ArrayList<>(PEOPLE);
+        for (int i = 0; i < PEOPLE; i++) {
+            var person = new Person();
+            person.setFullName("Bench Person " + i);
+            person.setEmail("l2-bench" + i + "@mail.com");
+            person.setBirthDate(LocalDate.of(1980, 1, 1).plusDays(i));
+            var address = new Address();
+            address.setStreet("Rua " + i);
+            address.setCep("88700-000");
+            address.setNumber(String.valueOf(i));
+            address.setCity("Tubarão");
+            address.setState("Santa Catarina");
+            address.setMainAddress(true);
+            address.setPerson(person);
+            person.getAddress().add(address);
+            people.add(person);
+        }
+        personRepository.saveAll(people);
+        personIds = new long[PEOPLE];
+        addressIds = new long[PEOPLE];
+        personDTOs = new PersonDTO[PEOPLE];
+        for (int i = 0; i < PEOPLE; i++) {
+            long id = people.get(i).getId();
+            personIds[i] = id;
+            addressIds[i] = people.get(i).getAddress().get(0).getId();
+            personDTOs[i] = readOnly.execute(status -> personMapper.toDTO(personRepository.findById(id).orElseThrow()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Also binds a request to the benchmark thread, which the use cases build their links from.
+     */
+    @State(Scope.Thread)
+    public static class IdCursor {
+
+        private int next;
+
+        @Setup(Level.Trial)
+        public void bindRequest() {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        }
+
+        @TearDown(Level.Trial)
+        public void unbindRequest() {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        int nextIndex(int length) {
+            next = next + 1 == length ? 0 : next + 1;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public EntityModel<PersonDTO> personById(IdCursor cursor) {
+        long id = personIds[cursor.nextIndex(personIds.length)];
+        readCacheEvictor.evictPerson(id);
+        return personUseCase.getPersonById(id);
+    }
+
+    @Benchmark
+    public EntityModel<AddressDTO> addressById(IdCursor cursor) {
+        long id = addressIds[cursor.nextIndex(addressIds.length)];
+        readCacheEvictor.evictAddress(id);
+        return addressUseCase.getAddressById(id);
+    }
+
+    @Benchmark
+    public PersonDTO unchangedUpdate(IdCursor cursor) {
+        int index = cursor.nextIndex(personIds.length);
+        return personUseCase.updatePerson(personDTOs[index], personIds[index], null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.kaiquef30.peopleregistration.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a 1,000-person page with the mappers the message converters use. The payload size of each format is
+ * printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"json", "xml", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+
+    private PagedModel<EntityModel<PersonDTO>> page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "xml" -> Jackson2ObjectMapperBuilder.xml().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        List<EntityModel<PersonDTO>> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            var addressDTO = new AddressDTO();
+            addressDTO.setStreet("Rua das flores");
+            addressDTO.setCep("0984-88");
+            addressDTO.setNumber(String.valueOf(i));
+            addressDTO.setCity("Tubarão");
+            addressDTO.setState("Santa Catarina");
+            addressDTO.setMainAddress(true);
+
+            var personDTO = new PersonDTO();
+            personDTO.setFullName("Maria Drummond Rodrigues " + i);
+            personDTO.setEmail("maria" + i + "@outlook.com");
+            personDTO.setBirthDate(LocalDate.of(2000, 4, 11).plusDays(i));
+            personDTO.setAddress(List.of(addressDTO));
+            content.add(EntityModel.of(personDTO, Link.of("http://localhost:8080/api/people/" + i)));
+        }
+        page = PagedModel.of(content, new PagedModel.PageMetadata(PAGE_SIZE, 0, 100_000),
+                Link.of("http://localhost:8080/api/people?page=0&size=" + PAGE_SIZE));
+
+        System.out.printf("%nformat=%s payloadBytes=%d%n", format, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
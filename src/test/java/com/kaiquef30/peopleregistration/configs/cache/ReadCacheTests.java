@@ -0,0 +1,154 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ReadCacheTests {
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getPersonById_RepeatedRead_IsServedFromCacheUntilPersonIsUpdated() {
+        PersonDTO created = personUseCase.createPerson(person("cache-update@mail.com"));
+
+        EntityModel<PersonDTO> first = personUseCase.getPersonById(created.getId());
+        EntityModel<PersonDTO> second = personUseCase.getPersonById(created.getId());
+        assertSame(first.getContent(), second.getContent());
+
+        PersonDTO update = person("cache-update@mail.com");
+        update.setFullName("Maria Atualizada");
+        personUseCase.updatePerson(update, created.getId(), null);
+
+        EntityModel<PersonDTO> afterUpdate = personUseCase.getPersonById(created.getId());
+        assertNotSame(first.getContent(), afterUpdate.getContent());
+        assertEquals("Maria Atualizada", afterUpdate.getContent().getFullName());
+    }
+
+    @Test
+    void getPersonById_AddressCreatedForPerson_InvalidatesPersonEntry() {
+        PersonDTO created = personUseCase.createPerson(person("cache-address@mail.com"));
+        personUseCase.getPersonById(created.getId());
+
+        addressUseCase.createAddress(address("Rua Nova"), created.getId());
+
+        assertEquals(2, personUseCase.getPersonById(created.getId()).getContent().getAddress().size());
+    }
+
+    @Test
+    void getAddressById_AddressUpdated_InvalidatesAddressAndOwner() {
+        PersonDTO created = personUseCase.createPerson(person("cache-owner@mail.com"));
+        Long addressId = created.getAddress().get(0).getId();
+        addressUseCase.getAddressById(addressId);
+        personUseCase.getPersonById(created.getId());
+
+        addressUseCase.updateAddress(address("Rua Alterada"), addressId, null);
+
+        assertEquals("Rua Alterada", addressUseCase.getAddressById(addressId).getContent().getStreet());
+        assertEquals("Rua Alterada",
+                personUseCase.getPersonById(created.getId()).getContent().getAddress().get(0).getStreet());
+    }
+
+    @Test
+    void getPersonById_CachedEntry_LinksFollowTheCurrentRequest() {
+        PersonDTO created = personUseCase.createPerson(person("cache-links@mail.com"));
+        personUseCase.getPersonById(created.getId());
+
+        var otherHost = new MockHttpServletRequest();
+        otherHost.setServerName("people.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(otherHost));
+
+        EntityModel<PersonDTO> cached = personUseCase.getPersonById(created.getId());
+        assertTrue(cached.getRequiredLink("Persons").getHref().contains("http://people.example.com/api/people"));
+    }
+
+    @Test
+    void getPerson_EvictedWhileLoading_DoesNotCacheTheLoadedValue() {
+        Long id = -1L;
+        var stale = new PersonDTO();
+        var current = new PersonDTO();
+
+        assertSame(stale, readCache.getPerson(id, () -> {
+            readCache.evictPerson(id);
+            return stale;
+        }));
+        assertNull(people().get(id));
+
+        assertSame(current, readCache.getPerson(id, () -> current));
+        assertSame(current, readCache.getPerson(id, () -> stale));
+    }
+
+    @Test
+    void evictPerson_LeavesNoEntryBehind() {
+        Long id = -2L;
+        readCache.getPerson(id, PersonDTO::new);
+        assertNotNull(people().get(id));
+
+        readCache.evictPerson(id);
+
+        assertNull(people().get(id));
+    }
+
+    private Cache people() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfiguration.PEOPLE));
+    }
+
+    private static PersonDTO person(String email) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail(email);
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address("Rua das flores"))));
+        return personDTO;
+    }
+
+    private static AddressDTO address(String street) {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet(street);
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
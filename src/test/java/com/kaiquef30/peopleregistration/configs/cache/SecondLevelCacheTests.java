@@ -0,0 +1,178 @@
+package com.kaiquef30.peopleregistration.configs.cache;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.repositories.AddressRepository;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SecondLevelCacheTests {
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @Test
+    void findById_RepeatedAcrossTransactions_IsServedFromTheSecondLevelCache() {
+        PersonDTO created = personUseCase.createPerson(person("l2-person@mail.com"));
+        Long addressId = created.getAddress().get(0).getId();
+        transactionTemplate.executeWithoutResult(status -> personRepository.findById(created.getId()));
+        transactionTemplate.executeWithoutResult(status -> addressRepository.findById(addressId));
+        CacheRegionStatistics personRegion = statistics.getDomainDataRegionStatistics(Person.CACHE_REGION);
+        CacheRegionStatistics addressRegion = statistics.getDomainDataRegionStatistics(Address.CACHE_REGION);
+
+        long personHits = personRegion.getHitCount();
+        transactionTemplate.executeWithoutResult(status -> personRepository.findById(created.getId()));
+        assertEquals(personHits + 1, personRegion.getHitCount());
+
+        long addressHits = addressRegion.getHitCount();
+        transactionTemplate.executeWithoutResult(status -> addressRepository.findById(addressId));
+        assertEquals(addressHits + 1, addressRegion.getHitCount());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", Person.CACHE_REGION).functionCounter());
+    }
+
+    @Test
+    void addressCollection_AddressCreated_IsNotServedStale() {
+        PersonDTO created = personUseCase.createPerson(person("l2-collection@mail.com"));
+        assertEquals(1, addressCount(created.getId()));
+        assertEquals(1, addressCount(created.getId()));
+
+        addressUseCase.createAddress(address("Rua Nova"), created.getId());
+
+        assertEquals(2, addressCount(created.getId()));
+    }
+
+    @Test
+    void findById_PersonUpdated_ReturnsTheNewState() {
+        PersonDTO created = personUseCase.createPerson(person("l2-update@mail.com"));
+        transactionTemplate.executeWithoutResult(status -> personRepository.findById(created.getId()));
+
+        PersonDTO update = person("l2-update@mail.com");
+        update.setFullName("Maria Atualizada");
+        personUseCase.updatePerson(update, created.getId(), null);
+
+        assertEquals("Maria Atualizada", transactionTemplate.execute(status ->
+                personRepository.findById(created.getId()).orElseThrow().getFullName()));
+    }
+
+    @Test
+    void createAddress_LoadsThePersonFromTheDatabase() {
+        PersonDTO created = personUseCase.createPerson(person("l2-write-lookup@mail.com"));
+        transactionTemplate.executeWithoutResult(status -> personRepository.findById(created.getId()));
+        CacheRegionStatistics personRegion = statistics.getDomainDataRegionStatistics(Person.CACHE_REGION);
+        long personHits = personRegion.getHitCount();
+
+        addressUseCase.createAddress(address("Rua Nova"), created.getId());
+
+        assertEquals(personHits, personRegion.getHitCount());
+    }
+
+    @Test
+    void writes_PersonChangedThroughAnotherNode_LoadTheCurrentVersion() {
+        PersonDTO created = personUseCase.createPerson(person("l2-other-node@mail.com"));
+        transactionTemplate.executeWithoutResult(status -> personRepository.findById(created.getId()));
+        jdbcTemplate.update("update tb_people set full_name = ?, version = version + 1 where id = ?",
+                "Maria Outro Nó", created.getId());
+
+        assertDoesNotThrow(() -> addressUseCase.createAddress(address("Rua Nova"), created.getId()));
+        PersonDTO update = person("l2-other-node@mail.com");
+        update.setFullName("Maria Atualizada");
+        assertEquals("Maria Atualizada", personUseCase.updatePerson(update, created.getId(), null).getFullName());
+    }
+
+    @Test
+    void setMainAddress_KeepsOtherPeopleCachedAndLoadsTheNewFlags() {
+        PersonDTO created = personUseCase.createPerson(person("l2-main@mail.com"));
+        AddressDTO second = addressUseCase.createAddress(address("Rua Nova"), created.getId());
+        PersonDTO other = personUseCase.createPerson(person("l2-main-other@mail.com"));
+        transactionTemplate.executeWithoutResult(status -> personRepository.findById(other.getId()));
+        assertEquals(2, addressCount(created.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Person.class, other.getId()));
+
+        addressUseCase.setMainAddress(second.getId(), created.getId());
+
+        assertTrue(entityManagerFactory.getCache().contains(Person.class, other.getId()));
+        assertEquals(List.of(second.getId()), mainAddressIds(created.getId()));
+    }
+
+    private List<Long> mainAddressIds(Long personId) {
+        return transactionTemplate.execute(status -> personRepository.findById(personId).orElseThrow().getAddress()
+                .stream().filter(Address::isMainAddress).map(Address::getId).toList());
+    }
+
+    private int addressCount(Long personId) {
+        return transactionTemplate.execute(status -> personRepository.findById(personId).orElseThrow().getAddress().size());
+    }
+
+    private static PersonDTO person(String email) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail(email);
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address("Rua das flores"))));
+        return personDTO;
+    }
+
+    private static AddressDTO address(String street) {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet(street);
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
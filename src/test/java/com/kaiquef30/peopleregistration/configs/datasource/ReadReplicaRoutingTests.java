@@ -0,0 +1,195 @@
+package com.kaiquef30.peopleregistration.configs.datasource;
+
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two independent in-memory H2 databases. The replica gets the primary's schema but no replication, so
+ * which database served a read shows in whether it finds what was just written.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+        "app.datasource.replica-urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "app.rate.enabled=false"})
+@AutoConfigureMockMvc
+public class ReadReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:rw-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;" +
+            "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:rw-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;" +
+            "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final String PERSON_JSON = "{\"fullName\":\"Maria Drummond Rodrigues\",\"email\":\"replica@mail.com\"," +
+            "\"birthDate\":\"2000-04-11\",\"address\":[{\"street\":\"Rua das flores\",\"cep\":\"0984-88\"," +
+            "\"number\":\"756\",\"city\":\"Tubarão\",\"state\":\"Santa Catarina\"}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Test
+    void reads_GoToTheReplicaUnlessTheClientHasJustWritten() throws Exception {
+        var response = mockMvc.perform(post("/api/people/register")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).content(PERSON_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        long id = primaryIdOf("replica@mail.com");
+        Cookie sticky = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(sticky);
+
+        mockMvc.perform(get("/api/people/{id}", id).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/people/{id}", id).accept(MediaType.APPLICATION_JSON)
+                        .cookie(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(System.currentTimeMillis() - 1))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/people/{id}", id).accept(MediaType.APPLICATION_JSON).cookie(sticky))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void replicaReads_DoNotFillTheCaches() throws Exception {
+        var response = mockMvc.perform(post("/api/people/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(PERSON_JSON.replace("replica@", "cache-replica@")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        Cookie sticky = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        long id = primaryIdOf("cache-replica@mail.com");
+        copyToReplica();
+        try (Connection primary = primaryDataSource.getConnection();
+             PreparedStatement statement = primary.prepareStatement("update tb_people set full_name = ? where id = ?")) {
+            statement.setString(1, "Maria Atualizada");
+            statement.setLong(2, id);
+            statement.executeUpdate();
+        }
+        entityManagerFactory.getCache().evictAll();
+
+        mockMvc.perform(get("/api/people/{id}", id).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Maria Drummond Rodrigues")));
+        assertFalse(entityManagerFactory.getCache().contains(Person.class, id));
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement statement = replica.prepareStatement("update tb_people set full_name = ? where id = ?")) {
+            statement.setString(1, "Maria da Replica");
+            statement.setLong(2, id);
+            statement.executeUpdate();
+        }
+        mockMvc.perform(get("/api/people/{id}", id).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Maria da Replica")));
+
+        mockMvc.perform(get("/api/people/{id}", id).accept(MediaType.APPLICATION_XML).cookie(sticky))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Maria Atualizada")));
+    }
+
+    @Test
+    void versionLookups_GoToThePrimary() throws Exception {
+        mockMvc.perform(post("/api/people/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(PERSON_JSON.replace("replica@", "version-replica@")))
+                .andExpect(status().isCreated());
+        long id = primaryIdOf("version-replica@mail.com");
+
+        assertTrue(personRepository.findModifiedAtById(id).isPresent());
+    }
+
+    @Test
+    void pools_ReportTheirOwnMetrics() throws Exception {
+        mockMvc.perform(get("/api/addresses").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+        mockMvc.perform(post("/api/people/register").contentType(MediaType.APPLICATION_JSON)
+                .content(PERSON_JSON.replace("replica@", "metrics@")));
+
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", ReadReplicaConfiguration.PRIMARY_POOL).gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica-1").gauge());
+    }
+
+    /**
+     * Replicates the current people and addresses of the primary once, by hand.
+     */
+    private void copyToReplica() throws SQLException {
+        try (Connection primary = primaryDataSource.getConnection();
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement replicaStatement = replica.createStatement()) {
+            for (String table : new String[]{"tb_people", "tb_address"}) {
+                try (Statement script = primary.createStatement();
+                     ResultSet statements = script.executeQuery("SCRIPT NOSETTINGS TABLE " + table)) {
+                    while (statements.next()) {
+                        if (statements.getString(1).startsWith("INSERT")) {
+                            replicaStatement.execute(statements.getString(1));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private long primaryIdOf(String email) throws SQLException {
+        try (Connection connection = primaryDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select id from tb_people where email = ?")) {
+            statement.setString(1, email);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Copies the schema Hibernate created on the primary to the replica before the startup readers run.
+     */
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @Bean
+        public Object replicaSchema(EntityManagerFactory entityManagerFactory, HikariDataSource primaryDataSource)
+                throws SQLException {
+            try (Connection primary = primaryDataSource.getConnection();
+                 Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement script = primary.createStatement();
+                 ResultSet statements = script.executeQuery("SCRIPT NODATA");
+                 Statement replicaStatement = replica.createStatement()) {
+                while (statements.next()) {
+                    replicaStatement.execute(statements.getString(1));
+                }
+            }
+            return REPLICA_URL;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.kaiquef30.peopleregistration.configs.metrics;
+
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class UseCaseMetricsAspectTests {
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void createPerson_RecordsTotalAndPhaseTimers() {
+        long before = timer("createPerson", "total").count();
+
+        personUseCase.createPerson(person("metrics@mail.com"));
+
+        Timer total = timer("createPerson", "total");
+        Timer db = timer("createPerson", "db");
+        Timer mapping = timer("createPerson", "mapping");
+        Timer commit = timer("createPerson", "commit");
+        Timer links = timer("createPerson", "links");
+        assertEquals(before + 1, total.count());
+        assertEquals(total.count(), db.count());
+        assertEquals(total.count(), mapping.count());
+        assertEquals(total.count(), commit.count());
+        assertEquals(total.count(), links.count());
+        assertTrue(db.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(mapping.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(commit.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(db.totalTime(TimeUnit.NANOSECONDS) + mapping.totalTime(TimeUnit.NANOSECONDS)
+                + commit.totalTime(TimeUnit.NANOSECONDS) <= total.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    private Timer timer(String method, String phase) {
+        Timer timer = meterRegistry.find(UseCaseMetricsAspect.METRIC_NAME)
+                .tags("usecase", "PersonUseCase", "method", method, "phase", phase)
+                .timer();
+        if (timer == null) {
+            return Timer.builder("absent").register(new SimpleMeterRegistry());
+        }
+        return timer;
+    }
+
+    private static PersonDTO person(String email) {
+        var address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setCep("88700-000");
+        address.setNumber("10");
+        address.setCity("Tubarão");
+        address.setState("Santa Catarina");
+
+        var person = new PersonDTO();
+        person.setFullName("Maria Drummond");
+        person.setEmail(email);
+        person.setBirthDate(LocalDate.of(2000, 4, 11));
+        person.setAddress(List.of(address));
+        return person;
+    }
+}
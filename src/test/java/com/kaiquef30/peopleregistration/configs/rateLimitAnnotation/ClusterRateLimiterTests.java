@@ -0,0 +1,60 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterRateLimiterTests {
+
+    private static final long WINDOW = 60000;
+
+    @Test
+    void tryAcquire_BudgetSpentOnOtherReplica_DeniesAfterSync() {
+        var replicaA = replica();
+        var replicaB = replica();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, replicaA.tryAcquire("10.0.0.1", 1000));
+        }
+        assertEquals(0, replicaB.tryAcquire("10.0.0.1", 1000));
+
+        Map<RateLimitWindow, Long> published = new HashMap<>();
+        replicaB.collect(published);
+        Map<RateLimitWindow, Long> totals = Map.of(new RateLimitWindow("endpoint", "10.0.0.1", 0), 6L);
+        replicaB.apply(published, totals);
+
+        assertEquals(WINDOW - 2000, replicaB.tryAcquire("10.0.0.1", 2000));
+        assertEquals(0, replicaB.tryAcquire("10.0.0.2", 2000));
+    }
+
+    @Test
+    void tryAcquire_NextWindow_StartsFromZero() {
+        var replica = replica();
+        replica.apply(collect(replica, "10.0.0.1", 1000), Map.of(new RateLimitWindow("endpoint", "10.0.0.1", 0), 6L));
+        assertTrue(replica.tryAcquire("10.0.0.1", 1000) > 0);
+
+        assertEquals(0, replica.tryAcquire("10.0.0.1", WINDOW));
+    }
+
+    @Test
+    void tryAcquire_LocalLimiterStillApplies() {
+        var replica = new ClusterRateLimiter("endpoint", new SlidingWindowRateLimiter(1, WINDOW), WINDOW, 6);
+
+        assertEquals(0, replica.tryAcquire("10.0.0.1", 0));
+        assertTrue(replica.tryAcquire("10.0.0.1", 0) > 0);
+    }
+
+    private static ClusterRateLimiter replica() {
+        return new ClusterRateLimiter("endpoint", new SlidingWindowRateLimiter(100, WINDOW), WINDOW, 6);
+    }
+
+    private static Map<RateLimitWindow, Long> collect(ClusterRateLimiter replica, String key, long nowMillis) {
+        replica.tryAcquire(key, nowMillis);
+        Map<RateLimitWindow, Long> published = new HashMap<>();
+        replica.collect(published);
+        return published;
+    }
+}
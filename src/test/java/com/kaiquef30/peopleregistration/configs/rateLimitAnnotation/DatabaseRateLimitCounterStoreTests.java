@@ -0,0 +1,63 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import com.kaiquef30.peopleregistration.domains.RateLimitCounter;
+import com.kaiquef30.peopleregistration.repositories.RateLimitCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the H2 database of the tests, in PostgreSQL mode, standing in for the shared PostgreSQL instance.
+ * Each store instance plays one replica.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class DatabaseRateLimitCounterStoreTests {
+
+    @Autowired
+    private RateLimitCounterRepository rateLimitCounterRepository;
+
+    @Test
+    void publish_TwoReplicas_ReturnsClusterTotals() {
+        var replicaA = new DatabaseRateLimitCounterStore(rateLimitCounterRepository);
+        var replicaB = new DatabaseRateLimitCounterStore(rateLimitCounterRepository);
+        var window = new RateLimitWindow("PersonResource.getAllPeople", "10.0.0.1", 60000);
+        var otherWindow = new RateLimitWindow("PersonResource.getAllPeople", "10.0.0.2", 60000);
+
+        assertEquals(Map.of(window, 3L), replicaA.publish(Map.of(window, 3L)));
+        assertEquals(Map.of(window, 5L, otherWindow, 1L), replicaB.publish(Map.of(window, 2L, otherWindow, 1L)));
+        assertEquals(Map.of(window, 9L), replicaA.publish(Map.of(window, 7L)));
+        assertEquals(3, rateLimitCounterRepository.count());
+    }
+
+    @Test
+    void publish_UnchangedCount_IsNotWrittenAgain() {
+        var store = new DatabaseRateLimitCounterStore(rateLimitCounterRepository);
+        var window = new RateLimitWindow("AddressResource.getAddressById", "10.0.0.3", 60000);
+        store.publish(Map.of(window, 3L));
+        RateLimitCounter row = rateLimitCounterRepository.findAll().get(0);
+        row.setHits(10);
+        rateLimitCounterRepository.saveAndFlush(row);
+
+        assertEquals(Map.of(window, 10L), store.publish(Map.of(window, 3L)));
+        assertEquals(Map.of(window, 4L), store.publish(Map.of(window, 4L)));
+    }
+
+    @Test
+    void purgeWindowsBefore_DropsEndedWindowsOnly() {
+        var store = new DatabaseRateLimitCounterStore(rateLimitCounterRepository);
+        var ended = new RateLimitWindow("AddressResource.getAllAddresses", "10.0.0.1", 0);
+        var open = new RateLimitWindow("AddressResource.getAllAddresses", "10.0.0.1", 60000);
+        store.publish(Map.of(ended, 4L, open, 1L));
+
+        store.purgeWindowsBefore(60000);
+
+        assertEquals(1, rateLimitCounterRepository.count());
+        assertEquals(Map.of(open, 1L), store.publish(Map.of(open, 1L)));
+    }
+}
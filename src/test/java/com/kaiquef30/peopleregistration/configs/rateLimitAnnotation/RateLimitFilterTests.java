@@ -0,0 +1,63 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RateLimitFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void doFilter_BudgetSpent_RejectsBeforeTheHandlerRunsWhateverTheAcceptHeader() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(export(MediaType.APPLICATION_NDJSON_VALUE, "10.20.30.40"))
+                    .andExpect(request().asyncStarted());
+        }
+        double denied = deniedCount("people.export");
+
+        mockMvc.perform(export(MediaType.APPLICATION_NDJSON_VALUE, "10.20.30.40"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(request().asyncNotStarted())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(RateLimitFilter.REJECTION_BODY));
+        assertEquals(denied + 1, deniedCount("people.export"));
+
+        mockMvc.perform(export(MediaType.APPLICATION_XML_VALUE, "10.20.30.40"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(request().asyncNotStarted());
+        mockMvc.perform(export(MediaType.APPLICATION_NDJSON_VALUE, "10.20.30.41"))
+                .andExpect(request().asyncStarted());
+    }
+
+    private double deniedCount(String endpoint) {
+        return meterRegistry.get("ratelimit.requests").tags("endpoint", endpoint, "outcome", "denied").counter().count();
+    }
+
+    private static MockHttpServletRequestBuilder export(String accept, String remoteAddr) {
+        return get("/api/people/export").accept(accept).with(request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class RateLimitPathTableTests {
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private RateLimitPolicyRegistry rateLimitPolicyRegistry;
+
+    private RateLimitPathTable pathTable;
+
+    @BeforeEach
+    void setUp() {
+        pathTable = new RateLimitPathTable(handlerMapping.getHandlerMethods(), rateLimitPolicyRegistry::getPolicy);
+    }
+
+    @Test
+    void find_LiteralPathWinsOverPathVariable() {
+        assertEquals("PersonResource.searchPeople", endpoint("GET", "/api/people/search", null));
+        assertEquals("people.get", endpoint("GET", "/api/people/12", MediaType.APPLICATION_XML_VALUE));
+        assertEquals("AddressResource.getStateCounts", endpoint("GET", "/api/addresses/counts/states", null));
+    }
+
+    @Test
+    void find_PathParametersAndPercentEncoding_ResolveLikeTheHandlerLookup() {
+        assertEquals("PersonResource.searchPeople", endpoint("GET", "/api/people/search;jsessionid=1", null));
+        assertEquals("PersonResource.searchPeople", endpoint("GET", "/api/people/%73earch", null));
+        assertEquals("AddressResource.getStateCounts", endpoint("GET", "/api/addresses;x=1/counts/st%61tes;y=2", null));
+        assertEquals("AddressResource.getAddressById", endpoint("GET", "/api/addresses/5;v=1", null));
+        assertEquals("AddressResource.setMainAddress", endpoint("PUT", "/api/addresses/%35/set-main;a=b/7", null));
+    }
+
+    @Test
+    void find_UsesTheRequestMethod() {
+        assertEquals("AddressResource.getAddressById", endpoint("GET", "/api/addresses/5", null));
+        assertEquals("AddressResource.getAddressById", endpoint("HEAD", "/api/addresses/5", null));
+        assertEquals("AddressResource.updateAddress", endpoint("PUT", "/api/addresses/5", null));
+        assertEquals("AddressResource.patchAddress", endpoint("PATCH", "/api/addresses/5", null));
+        assertEquals("AddressResource.deleteAddress", endpoint("DELETE", "/api/addresses/5", null));
+        assertEquals("AddressResource.setMainAddress", endpoint("PUT", "/api/addresses/5/set-main/7", null));
+    }
+
+    @Test
+    void find_SamePathAndMethodSplitByAcceptHeader_SharesOnePolicy() {
+        assertSame(pathTable.find(request("GET", "/api/people/export", MediaType.APPLICATION_XML_VALUE)),
+                pathTable.find(request("GET", "/api/people/export", MediaType.APPLICATION_NDJSON_VALUE)));
+        assertEquals("people.export", endpoint("GET", "/api/people/export", MediaType.APPLICATION_XML_VALUE));
+        assertSame(pathTable.find(request("GET", "/api/people/12", MediaType.APPLICATION_JSON_VALUE)),
+                pathTable.find(request("GET", "/api/people/12", MediaType.APPLICATION_CBOR_VALUE)));
+        assertEquals("people.get", endpoint("GET", "/api/people/12", MediaType.APPLICATION_JSON_VALUE));
+    }
+
+    @Test
+    void find_UnlimitedOrUnknownPath_ReturnsNull() {
+        assertNull(pathTable.find(request("GET", "/api/people/12/unknown", null)));
+        assertNull(pathTable.find(request("POST", "/api/people/search", null)));
+        assertNull(pathTable.find(request("GET", "/v3/api-docs", null)));
+    }
+
+    private String endpoint(String method, String path, String accept) {
+        RateLimitPolicy policy = pathTable.find(request(method, path, accept));
+        assertNotNull(policy, method + " " + path);
+        return policy.getEndpoint();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String accept) {
+        var request = new MockHttpServletRequest(method, path);
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitPolicyRegistryTests {
+
+    @WithRateLimitProtection(capacity = 1, refillPeriodMs = 60000)
+    void limitedEndpoint() {
+    }
+
+    @WithRateLimitProtection(policy = "shared", capacity = 1, refillPeriodMs = 60000)
+    void sharedAsJson() {
+    }
+
+    @WithRateLimitProtection(policy = "shared", capacity = 1, refillPeriodMs = 60000)
+    void sharedAsXml() {
+    }
+
+    @WithRateLimitProtection(policy = "shared", capacity = 5, refillPeriodMs = 60000)
+    void sharedWithOtherLimits() {
+    }
+
+    @Test
+    void getPolicy_SamePolicyName_SharesOneBudget() throws Exception {
+        var registry = new RateLimitPolicyRegistry(10, 60000, new SimpleMeterRegistry(), Optional.empty());
+        RateLimitPolicy json = registry.getPolicy(RateLimitPolicyRegistryTests.class.getDeclaredMethod("sharedAsJson"));
+        RateLimitPolicy xml = registry.getPolicy(RateLimitPolicyRegistryTests.class.getDeclaredMethod("sharedAsXml"));
+
+        assertSame(json, xml);
+        assertEquals("shared", json.getEndpoint());
+        assertEquals(0, json.tryAcquire("10.0.0.1", 0));
+        assertTrue(xml.tryAcquire("10.0.0.1", 0) > 0);
+        assertThrows(IllegalStateException.class, () ->
+                registry.getPolicy(RateLimitPolicyRegistryTests.class.getDeclaredMethod("sharedWithOtherLimits")));
+    }
+
+    @Test
+    void tryAcquire_CountsAllowedAndDeniedRequestsAndTracksKeys() throws Exception {
+        var meterRegistry = new SimpleMeterRegistry();
+        var registry = new RateLimitPolicyRegistry(10, 60000, meterRegistry, Optional.empty());
+        Method method = RateLimitPolicyRegistryTests.class.getDeclaredMethod("limitedEndpoint");
+        RateLimitPolicy policy = registry.getPolicy(method);
+
+        assertEquals(0, policy.tryAcquire("10.0.0.1", 0));
+        assertTrue(policy.tryAcquire("10.0.0.1", 0) > 0);
+        assertEquals(0, policy.tryAcquire("10.0.0.2", 0));
+
+        String endpoint = "RateLimitPolicyRegistryTests.limitedEndpoint";
+        assertEquals(2, meterRegistry.get("ratelimit.requests").tags("endpoint", endpoint, "outcome", "allowed").counter().count());
+        assertEquals(1, meterRegistry.get("ratelimit.requests").tags("endpoint", endpoint, "outcome", "denied").counter().count());
+        assertEquals(2, meterRegistry.get("ratelimit.tracked.keys").tag("endpoint", endpoint).gauge().value());
+        assertSame(policy, registry.getPolicy(method));
+    }
+}
@@ -0,0 +1,77 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowRateLimiterTests {
+
+    @Test
+    void tryAcquire_WithinLimit_AllowsThenRejects() {
+        var rateLimiter = new SlidingWindowRateLimiter(3, 1_000);
+
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", 10_000));
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", 10_100));
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", 10_200));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", 10_300) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2", 10_300));
+    }
+
+    @Test
+    void tryAcquire_PreviousWindowIsWeightedBySlidingOverlap() {
+        var rateLimiter = new SlidingWindowRateLimiter(4, 1_000);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("key", 10_000 + i));
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("key", 11_100));
+        assertTrue(rateLimiter.tryAcquire("key", 11_100) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("key", 11_800));
+    }
+
+    @Test
+    void tryAcquire_Rejected_ReturnsWaitUntilSlidingEstimateDropsBelowLimit() {
+        var rateLimiter = new SlidingWindowRateLimiter(2, 1_000);
+        rateLimiter.tryAcquire("key", 10_000);
+        rateLimiter.tryAcquire("key", 10_000);
+
+        long retryAfter = rateLimiter.tryAcquire("key", 10_400);
+
+        assertEquals(601, retryAfter);
+        assertEquals(0, rateLimiter.tryAcquire("key", 10_400 + retryAfter));
+    }
+
+    @Test
+    void evictIdleKeys_RemovesOnlyKeysOutsideTheSlidingWindow() {
+        var rateLimiter = new SlidingWindowRateLimiter(10, 1_000);
+        rateLimiter.tryAcquire("idle", 10_000);
+        rateLimiter.tryAcquire("active", 12_500);
+
+        rateLimiter.evictIdleKeys(12_600);
+
+        assertEquals(1, rateLimiter.trackedKeys());
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallers_NeverExceedLimit() throws InterruptedException {
+        var rateLimiter = new SlidingWindowRateLimiter(100, 60_000);
+        var allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            executor.execute(() -> {
+                if (rateLimiter.tryAcquire("key", 10_000) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,41 @@
+package com.kaiquef30.peopleregistration.configs.rateLimitAnnotation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterTests {
+
+    @Test
+    void tryAcquire_AllowsCapacityPlusBurstThenReportsRefillWait() {
+        var rateLimiter = new TokenBucketRateLimiter(2, 1, 1_000, 1);
+
+        assertEquals(0, rateLimiter.tryAcquire("key", 10_000));
+        assertEquals(0, rateLimiter.tryAcquire("key", 10_000));
+        assertEquals(0, rateLimiter.tryAcquire("key", 10_000));
+        assertEquals(1_000, rateLimiter.tryAcquire("key", 10_000));
+        assertEquals(0, rateLimiter.tryAcquire("key", 11_000));
+    }
+
+    @Test
+    void tryAcquire_RefillsAtConfiguredRate() {
+        var rateLimiter = new TokenBucketRateLimiter(1, 10, 1_000, 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("key", 10_000));
+        assertEquals(100, rateLimiter.tryAcquire("key", 10_000));
+        assertEquals(40, rateLimiter.tryAcquire("key", 10_060));
+        assertEquals(0, rateLimiter.tryAcquire("key", 10_100));
+        assertEquals(0, rateLimiter.tryAcquire("other", 10_100));
+    }
+
+    @Test
+    void evictIdleKeys_RemovesOnlyFullBuckets() {
+        var rateLimiter = new TokenBucketRateLimiter(5, 5, 1_000, 0);
+        rateLimiter.tryAcquire("idle", 10_000);
+        rateLimiter.tryAcquire("active", 10_900);
+
+        rateLimiter.evictIdleKeys(11_000);
+
+        assertEquals(1, rateLimiter.trackedKeys());
+    }
+}
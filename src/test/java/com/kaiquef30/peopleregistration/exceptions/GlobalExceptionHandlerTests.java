@@ -0,0 +1,39 @@
+package com.kaiquef30.peopleregistration.exceptions;
+
+import com.kaiquef30.peopleregistration.domains.Person;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleDataIntegrityViolationException_DuplicateEmail_ReturnsConflict() {
+        var response = handler.handleDataIntegrityViolationException(
+                violation(Person.EMAIL_CONSTRAINT.toUpperCase() + "_INDEX_B"), new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void handleDataIntegrityViolationException_OtherConstraint_ReturnsInternalServerError() {
+        var response = handler.handleDataIntegrityViolationException(
+                violation("ex_address_one_main_per_person"), new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        var cause = new ConstraintViolationException("violation", new SQLException("violation"), constraintName);
+        return new DataIntegrityViolationException("could not execute statement", cause);
+    }
+}
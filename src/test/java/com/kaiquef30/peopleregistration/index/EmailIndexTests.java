@@ -0,0 +1,73 @@
+package com.kaiquef30.peopleregistration.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailIndexTests {
+
+    @Test
+    void mightContain_BeforeReady_AlwaysReportsPossibleMatch() {
+        var emailIndex = new EmailIndex();
+
+        assertTrue(emailIndex.mightContain("absent@mail.com"));
+
+        emailIndex.markReady();
+        assertFalse(emailIndex.mightContain("absent@mail.com"));
+    }
+
+    @Test
+    void mightContain_NormalizesCaseAndWhitespace() {
+        var emailIndex = new EmailIndex();
+        emailIndex.markReady();
+
+        emailIndex.add("Maria@Mail.com ");
+
+        assertTrue(emailIndex.mightContain("maria@mail.com"));
+        assertTrue(emailIndex.mightContain(" MARIA@MAIL.COM"));
+    }
+
+    @Test
+    void addAndRemove_RandomOperations_MatchReferenceSet() {
+        var emailIndex = new EmailIndex();
+        emailIndex.markReady();
+        Set<String> reference = new HashSet<>();
+        List<String> universe = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            universe.add("person" + i + "@mail.com");
+        }
+
+        var random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            String email = universe.get(random.nextInt(universe.size()));
+            if (random.nextInt(3) == 0) {
+                emailIndex.remove(email);
+                reference.remove(email);
+            } else {
+                emailIndex.add(email);
+                reference.add(email);
+            }
+        }
+
+        assertEquals(reference.size(), emailIndex.size());
+        for (String email : universe) {
+            assertEquals(reference.contains(email), emailIndex.mightContain(email), email);
+        }
+    }
+
+    @Test
+    void tableBytes_StaysWithinFourTimesTheRawHashes() {
+        var emailIndex = new EmailIndex();
+        for (int i = 0; i < 100_000; i++) {
+            emailIndex.add("person" + i + "@mail.com");
+        }
+
+        assertTrue(emailIndex.tableBytes() <= 4L * Long.BYTES * 100_000);
+    }
+}
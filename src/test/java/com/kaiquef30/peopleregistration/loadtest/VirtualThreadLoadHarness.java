@@ -0,0 +1,221 @@
+package com.kaiquef30.peopleregistration.loadtest;
+
+import com.kaiquef30.peopleregistration.PeopleRegistrationApplication;
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares request throughput and latency with Tomcat on platform threads versus virtual threads, for several
+ * connection-pool sizes. Each combination boots the application on a random port, seeds the database, warms up and
+ * then drives paged listings (uncached, so every request borrows a JDBC connection) from a fixed set of client
+ * threads.
+ * <p>
+ * Run with {@code mvn -Pjava21,loadtest test-compile exec:exec}. Tunables are system properties:
+ * {@code loadtest.poolSizes} (default {@code 5,10,20}), {@code loadtest.concurrency} (200),
+ * {@code loadtest.seconds} (20), {@code loadtest.warmupSeconds} (5), {@code loadtest.people} (2000) and
+ * {@code loadtest.url}/{@code loadtest.username}/{@code loadtest.password} to target a real database instead of the
+ * in-memory H2 one. On a JVM older than 21 only the platform-thread mode is measured.
+ */
+public final class VirtualThreadLoadHarness {
+
+    private static final int PAGE_SIZE = 20;
+
+    private VirtualThreadLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] poolSizes = Arrays.stream(System.getProperty("loadtest.poolSizes", "5,10,20").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 20));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5));
+        int people = Integer.getInteger("loadtest.people", 2000);
+        boolean virtualThreadsAvailable = Runtime.version().feature() >= 21;
+
+        List<String> rows = new ArrayList<>();
+        for (int poolSize : poolSizes) {
+            rows.add(run(false, poolSize, concurrency, people, warmup, duration).format());
+            if (virtualThreadsAvailable) {
+                rows.add(run(true, poolSize, concurrency, people, warmup, duration).format());
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-9s %5s %12s %10s %10s %10s %8s%n", "threads", "pool", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        rows.forEach(System.out::println);
+        if (!virtualThreadsAvailable) {
+            System.out.println("Virtual threads need Java 21; only platform threads were measured.");
+        }
+    }
+
+    private static Result run(boolean virtualThreads, int poolSize, int concurrency, int people,
+                              Duration warmup, Duration duration) throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "app.rate.enabled=false",
+                "logging.level.root=WARN"));
+        String url = System.getProperty("loadtest.url");
+        if (url != null) {
+            properties.add("spring.datasource.url=" + url);
+            properties.add("spring.datasource.username=" + System.getProperty("loadtest.username", ""));
+            properties.add("spring.datasource.password=" + System.getProperty("loadtest.password", ""));
+        } else {
+            properties.add("spring.datasource.url=jdbc:h2:mem:loadtest-" + virtualThreads + "-" + poolSize
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PeopleRegistrationApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run()) {
+            seed(context.getBean(PersonRepository.class), people);
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            int pages = Math.max(1, people / PAGE_SIZE);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            drive(client, port, pages, concurrency, warmup);
+            LatencySample sample = drive(client, port, pages, concurrency, duration);
+            return new Result(virtualThreads, poolSize, sample, duration);
+        }
+    }
+
+    private static void seed(PersonRepository personRepository, int people) {
+        List<Person> batch = new ArrayList<>(500);
+        for (int i = 0; i < people; i++) {
+            var person = new Person();
+            person.setFullName("Load Person " + i);
+            person.setEmail("load" + i + "@mail.com");
+            person.setBirthDate(LocalDate.of(1980, 1, 1).plusDays(i % 10000));
+            var address = new Address();
+            address.setStreet("Rua " + i);
+            address.setCep("88700-000");
+            address.setNumber(String.valueOf(i));
+            address.setCity("Tubarão");
+            address.setState("Santa Catarina");
+            address.setMainAddress(true);
+            address.setPerson(person);
+            person.getAddress().add(address);
+            batch.add(person);
+            if (batch.size() == 500) {
+                personRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        personRepository.saveAll(batch);
+    }
+
+    private static LatencySample drive(HttpClient client, int port, int pages, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<LatencySample>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    LatencySample sample = new LatencySample();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                        + "/api/people?page=" + random.nextInt(pages) + "&size=" + PAGE_SIZE))
+                                .header("Accept", "application/json")
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            sample.record(System.nanoTime() - start, response.statusCode() == 200);
+                        } catch (Exception e) {
+                            sample.record(System.nanoTime() - start, false);
+                        }
+                    }
+                    return sample;
+                }));
+            }
+            LatencySample merged = new LatencySample();
+            for (Future<LatencySample> future : futures) {
+                merged.merge(future.get());
+            }
+            return merged;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static final class LatencySample {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private int errors;
+
+        void record(long nanos, boolean success) {
+            if (!success) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(LatencySample other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return latencies[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+        }
+
+        void sort() {
+            Arrays.sort(latencies, 0, count);
+        }
+    }
+
+    private record Result(boolean virtualThreads, int poolSize, LatencySample sample, Duration duration) {
+
+        String format() {
+            sample.sort();
+            return String.format("%-9s %5d %12.1f %10.2f %10.2f %10.2f %8d",
+                    virtualThreads ? "virtual" : "platform", poolSize,
+                    sample.count / (double) duration.toSeconds(),
+                    sample.percentileMillis(0.50), sample.percentileMillis(0.99), sample.percentileMillis(1.0),
+                    sample.errors);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.kaiquef30.peopleregistration.mappers;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersonMapperTests {
+
+    private final PersonMapper personMapper = new PersonMapper(new AddressMapper());
+
+    @Test
+    void updateEntity_MatchesAddressesByIdWhateverTheirOrder() {
+        var person = new Person();
+        var first = address(1L, "Rua A");
+        var second = address(2L, "Rua B");
+        first.setMainAddress(true);
+        person.getAddress().add(first);
+        person.getAddress().add(second);
+
+        var personDTO = new PersonDTO();
+        personDTO.setEmail("new@mail.com");
+        personDTO.setAddress(List.of(addressDTO(2L, "Rua C"), addressDTO(1L, "Rua A"), addressDTO(null, "Rua D")));
+
+        personMapper.updateEntity(personDTO, person);
+
+        assertEquals("new@mail.com", person.getEmail());
+        assertEquals(3, person.getAddress().size());
+        assertSame(first, person.getAddress().get(0));
+        assertEquals("Rua A", first.getStreet());
+        assertTrue(first.isMainAddress());
+        assertSame(second, person.getAddress().get(1));
+        assertEquals("Rua C", second.getStreet());
+        assertNull(person.getAddress().get(2).getId());
+        assertSame(person, person.getAddress().get(2).getPerson());
+    }
+
+    @Test
+    void updateEntity_RemovesAddressesNoLongerListed() {
+        var person = new Person();
+        person.getAddress().add(address(1L, "Rua A"));
+        person.getAddress().add(address(2L, "Rua B"));
+
+        var personDTO = new PersonDTO();
+        personDTO.setAddress(List.of(addressDTO(2L, "Rua B")));
+
+        assertTrue(personMapper.updateEntity(personDTO, person));
+        assertEquals(1, person.getAddress().size());
+        assertEquals(2L, person.getAddress().get(0).getId());
+    }
+
+    @Test
+    void updateEntity_AddressOfAnotherPersonOrListedTwice_ThrowsBadRequestException() {
+        var person = new Person();
+        person.getAddress().add(address(1L, "Rua A"));
+
+        var personDTO = new PersonDTO();
+        personDTO.setAddress(List.of(addressDTO(9L, "Rua A")));
+        assertThrows(BadRequestException.class, () -> personMapper.updateEntity(personDTO, person));
+
+        personDTO.setAddress(List.of(addressDTO(1L, "Rua A"), addressDTO(1L, "Rua B")));
+        assertThrows(BadRequestException.class, () -> personMapper.updateEntity(personDTO, person));
+    }
+
+    @Test
+    void updateEntity_WithoutAddressList_LeavesAddressesUntouched() {
+        var person = new Person();
+        person.getAddress().add(address(1L, "Rua A"));
+
+        personMapper.updateEntity(new PersonDTO(), person);
+
+        assertEquals(1, person.getAddress().size());
+    }
+
+    @Test
+    void updateEntity_SameValues_ReportsNoChange() {
+        var person = new Person();
+        person.setEmail("same@mail.com");
+        person.getAddress().add(address(1L, "Rua A"));
+
+        var personDTO = new PersonDTO();
+        personDTO.setEmail("same@mail.com");
+        personDTO.setAddress(List.of(addressDTO(1L, "Rua A")));
+
+        assertFalse(personMapper.updateEntity(personDTO, person));
+
+        personDTO.setAddress(List.of(addressDTO(1L, "Rua B")));
+        assertTrue(personMapper.updateEntity(personDTO, person));
+    }
+
+    private static Address address(Long id, String street) {
+        var address = new Address();
+        address.setId(id);
+        address.setStreet(street);
+        return address;
+    }
+
+    private static AddressDTO addressDTO(Long id, String street) {
+        var addressDTO = new AddressDTO();
+        addressDTO.setId(id);
+        addressDTO.setStreet(street);
+        return addressDTO;
+    }
+}
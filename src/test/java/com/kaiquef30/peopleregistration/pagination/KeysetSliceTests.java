@@ -0,0 +1,60 @@
+package com.kaiquef30.peopleregistration.pagination;
+
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetSliceTests {
+
+    private static final List<Long> IDS = LongStream.rangeClosed(1, 10).boxed().toList();
+
+    @Test
+    void fetch_FirstPage_HasNextButNoPrevious() {
+        KeysetSlice<Long> slice = fetch(KeysetCursor.first(), 4);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), slice.getContent());
+        assertEquals(4L, slice.getNext().getId());
+        assertNull(slice.getPrevious());
+    }
+
+    @Test
+    void fetch_FollowingNextAndPrevious_WalksBackAndForth() {
+        KeysetSlice<Long> second = fetch(KeysetCursor.decode(KeysetCursor.after(4).encode()), 4);
+        assertEquals(List.of(5L, 6L, 7L, 8L), second.getContent());
+
+        KeysetSlice<Long> last = fetch(second.getNext(), 4);
+        assertEquals(List.of(9L, 10L), last.getContent());
+        assertNull(last.getNext());
+
+        KeysetSlice<Long> back = fetch(last.getPrevious(), 4);
+        assertEquals(List.of(5L, 6L, 7L, 8L), back.getContent());
+        assertEquals(KeysetCursor.Direction.BEFORE, back.getPrevious().getDirection());
+
+        KeysetSlice<Long> first = fetch(back.getPrevious(), 4);
+        assertEquals(List.of(1L, 2L, 3L, 4L), first.getContent());
+        assertNull(first.getPrevious());
+    }
+
+    @Test
+    void decode_TamperedCursor_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+
+    private static KeysetSlice<Long> fetch(KeysetCursor cursor, int size) {
+        return KeysetSlice.fetch(cursor, size, KeysetSliceTests::after, KeysetSliceTests::before, Long::longValue);
+    }
+
+    private static List<Long> after(Long id, Limit limit) {
+        return IDS.stream().filter(i -> i > id).limit(limit.max()).toList();
+    }
+
+    private static List<Long> before(Long id, Limit limit) {
+        return IDS.stream().filter(i -> i < id).sorted(Comparator.reverseOrder()).limit(limit.max()).toList();
+    }
+}
@@ -0,0 +1,243 @@
+package com.kaiquef30.peopleregistration.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.domains.PersonDocument;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.repositories.PersonDocumentRepository;
+import com.kaiquef30.peopleregistration.resources.ETags;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PersonReadModelTests {
+
+    private static final String PERSON_JSON = "{\"fullName\":\"Maria Drummond Rodrigues\",\"email\":\"%s\"," +
+            "\"birthDate\":\"2000-04-11\",\"address\":[{\"id\":%d,\"street\":\"Rua das flores\",\"cep\":\"0984-88\"," +
+            "\"number\":\"756\",\"city\":\"Tubarão\",\"state\":\"Santa Catarina\",\"mainAddress\":false}]," +
+            "\"_links\":{\"Persons\":{\"href\":\"http://localhost/api/people\"}}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private PersonDocumentRepository personDocumentRepository;
+
+    @Autowired
+    private PersonReadModelEndpoint personReadModelEndpoint;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void getPersonById_Json_ServesTheStoredDocumentInOneQuery() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-get@mail.com"));
+        assertTrue(personDocumentRepository.existsById(created.getId()));
+        assertTrue(changeLog.awaitDrained(5000));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(created.getVersion())))
+                .andExpect(content().bytes(personJson(created)));
+
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getPersonById_Json_IsTheBytesTheEntityModelWouldRenderTo() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-model@mail.com"));
+        byte[] expected;
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            expected = halObjectMapper().writeValueAsBytes(personUseCase.getPersonById(created.getId()));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(expected));
+    }
+
+    @Test
+    void getPersonById_AddressCreated_ServesTheNewDocument() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-address@mail.com"));
+
+        addressUseCase.createAddress(address("Rua Nova"), created.getId());
+
+        long version = personUseCase.getPersonVersion(created.getId()).orElseThrow();
+        assertNotEquals(created.getVersion(), version);
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(version)))
+                .andExpect(jsonPath("$.address", hasSize(2)))
+                .andExpect(jsonPath("$.address[1].street").value("Rua Nova"));
+    }
+
+    @Test
+    void getPersonById_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-etag@mail.com"));
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, ETags.of(created.getVersion())))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getPersonById_MatchingIfNoneMatch_DoesNotLoadTheDocument() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-etag-version@mail.com"));
+        assertTrue(changeLog.awaitDrained(5000));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, ETags.of(created.getVersion())))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertFalse(Arrays.stream(statistics.getQueries()).anyMatch(query -> query.contains("PersonDocument")));
+    }
+
+    @Test
+    void deletePerson_RemovesTheDocument() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-delete@mail.com"));
+
+        personUseCase.deletePerson(created.getId());
+
+        assertFalse(personDocumentRepository.existsById(created.getId()));
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rebuild_RestoresMissingDocumentsAndDropsOrphans() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-rebuild@mail.com"));
+        personDocumentRepository.deleteById(created.getId());
+        personDocumentRepository.save(new PersonDocument(-1L, 0, "{}".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(personJson(created)));
+
+        RebuildResult result = personReadModelEndpoint.rebuild();
+
+        assertTrue(result.rendered() > 0);
+        assertTrue(result.removed() > 0);
+        assertTrue(personDocumentRepository.existsById(created.getId()));
+        assertFalse(personDocumentRepository.existsById(-1L));
+    }
+
+    @Test
+    void insertIfAbsent_DocumentStoredMeanwhile_KeepsItWithoutFailing() {
+        PersonDTO created = personUseCase.createPerson(person("readmodel-race@mail.com"));
+        long version = storedVersion(created.getId());
+
+        Integer inserted = transactionTemplate.execute(status -> personDocumentRepository.insertIfAbsent(
+                created.getId(), PersonDocument.CURRENT_FORMAT, version - 1, "{}".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, inserted);
+        assertEquals(version, storedVersion(created.getId()));
+    }
+
+    @Test
+    void readModelEndpoint_IsNotExposedOverHttp() throws Exception {
+        mockMvc.perform(post("/actuator/readmodel"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * The mapper Spring HATEOAS registered for representation models written as JSON.
+     */
+    private ObjectMapper halObjectMapper() {
+        return handlerAdapter.getMessageConverters().stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(converter -> ((MappingJackson2HttpMessageConverter) converter)
+                        .getObjectMappersForType(EntityModel.class).get(MediaType.APPLICATION_JSON))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private long storedVersion(Long personId) {
+        return personDocumentRepository.findRenderedByPersonId(personId, PersonDocument.CURRENT_FORMAT).orElseThrow().version();
+    }
+
+    private static byte[] personJson(PersonDTO person) {
+        return PERSON_JSON.formatted(person.getEmail(), person.getAddress().get(0).getId()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static PersonDTO person(String email) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail(email);
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address("Rua das flores"))));
+        return personDTO;
+    }
+
+    private static AddressDTO address(String street) {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet(street);
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
@@ -0,0 +1,127 @@
+package com.kaiquef30.peopleregistration.repositories;
+
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.search.SearchText;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class PersonRepositoryTests {
+
+    private static final long MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 60; i++) {
+            var person = new Person();
+            person.setFullName("Person " + i);
+            person.setEmail("person" + i + "@mail.com");
+            person.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(i));
+            for (int j = 0; j < 2; j++) {
+                var address = new Address();
+                address.setStreet("Street " + j);
+                address.setCep("88700-00" + j);
+                address.setNumber(String.valueOf(j));
+                address.setCity("Tubarão");
+                address.setState("Santa Catarina");
+                address.setPerson(person);
+                person.getAddress().add(address);
+            }
+            entityManager.persist(person);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllWithAddress_SmallPage_IssuesConstantNumberOfStatements() {
+        assertPageLoadsWithinStatementBudget(PageRequest.of(0, 5, Sort.by("id")));
+    }
+
+    @Test
+    void findAllWithAddress_LargePage_IssuesConstantNumberOfStatements() {
+        assertPageLoadsWithinStatementBudget(PageRequest.of(0, 50, Sort.by("id")));
+    }
+
+    @Test
+    void findAllWithAddress_KeepsRequestedOrder() {
+        Page<Person> page = personRepository.findAllWithAddress(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "fullName")));
+
+        assertEquals("Person 9", page.getContent().get(0).getFullName());
+        assertEquals("Person 54", page.getContent().get(9).getFullName());
+        assertEquals(60, page.getTotalElements());
+    }
+
+    @Test
+    void findIdsAfterAndBefore_SeekOnIdWithLimit() {
+        List<Long> first = personRepository.findIdsAfter(Long.MIN_VALUE, Limit.of(5));
+        List<Long> next = personRepository.findIdsAfter(first.get(4), Limit.of(5));
+        List<Long> previous = personRepository.findIdsBefore(next.get(0), Limit.of(5));
+
+        assertEquals(5, next.size());
+        assertTrue(next.get(0) > first.get(4));
+        assertEquals(first.stream().sorted(Comparator.reverseOrder()).toList(), previous);
+    }
+
+    @Test
+    void searchWithAddress_MatchesNameOrEmailIgnoringCaseAndAccents() {
+        var person = new Person();
+        person.setFullName("João Gonçalves");
+        person.setEmail("jgoncalves@mail.com");
+        entityManager.persist(person);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<Person> byName = personRepository.searchWithAddress(SearchText.containsPattern("GONCAL"), PageRequest.of(0, 10));
+        Page<Person> byEmail = personRepository.searchWithAddress(SearchText.containsPattern("person5"), PageRequest.of(0, 5, Sort.by("fullName")));
+
+        assertEquals(List.of("João Gonçalves"), byName.getContent().stream().map(Person::getFullName).toList());
+        assertEquals(11, byEmail.getTotalElements());
+        assertEquals("Person 5", byEmail.getContent().get(0).getFullName());
+        assertEquals(2, byEmail.getContent().get(0).getAddress().size());
+    }
+
+    private void assertPageLoadsWithinStatementBudget(PageRequest pageRequest) {
+        Page<Person> page = personRepository.findAllWithAddress(pageRequest);
+
+        int addresses = page.getContent().stream().mapToInt(person -> person.getAddress().size()).sum();
+
+        assertEquals(pageRequest.getPageSize() * 2, addresses);
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Expected at most " + MAX_STATEMENTS_PER_PAGE + " statements but was " + statistics.getPrepareStatementCount());
+    }
+}
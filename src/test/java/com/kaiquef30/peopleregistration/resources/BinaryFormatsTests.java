@@ -0,0 +1,103 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.kaiquef30.peopleregistration.configs.WebConfig;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BinaryFormatsTests {
+
+    private static final String PERSON_JSON = "{\"fullName\":\"Maria Drummond Rodrigues\",\"email\":\"%s\",\"birthDate\":\"2000-04-11\"," +
+            "\"address\":[{\"street\":\"Rua das flores\",\"cep\":\"0984-88\",\"number\":\"756\",\"city\":\"Tubarão\",\"state\":\"Santa Catarina\"}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Test
+    void createPerson_CborRequestAndResponse_RoundTrips() throws Exception {
+        assertRoundTrip(new CBORMapper(), MediaType.APPLICATION_CBOR, "cbor@mail.com");
+    }
+
+    @Test
+    void createPerson_SmileRequestAndResponse_RoundTrips() throws Exception {
+        assertRoundTrip(new SmileMapper(), WebConfig.APPLICATION_SMILE, "smile@mail.com");
+    }
+
+    @Test
+    void getAllPeople_AcceptCbor_ReturnsCbor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/people").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertTrue(new CBORMapper().readTree(result.getResponse().getContentAsByteArray()).isObject());
+    }
+
+    @Test
+    void getPeople_AcceptCborOrSmile_ReturnsTheHalShapeWithoutDuplicateKeys() throws Exception {
+        Long id = personUseCase.createPerson(objectMapper.readValue(String.format(PERSON_JSON, "hal-binary@mail.com"),
+                PersonDTO.class)).getId();
+
+        ObjectMapper[] mappers = {new CBORMapper(), new SmileMapper()};
+        MediaType[] mediaTypes = {MediaType.APPLICATION_CBOR, WebConfig.APPLICATION_SMILE};
+        for (int i = 0; i < mappers.length; i++) {
+            ObjectMapper strict = mappers[i].enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+
+            JsonNode page = strict.readTree(mockMvc.perform(get("/api/people").accept(mediaTypes[i]))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray());
+            assertTrue(page.has("_embedded"));
+            assertTrue(page.has("_links"));
+            assertFalse(page.has("links"));
+
+            JsonNode person = strict.readTree(mockMvc.perform(get("/api/people/{id}", id).accept(mediaTypes[i]))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray());
+            assertEquals("hal-binary@mail.com", person.get("email").asText());
+            assertTrue(person.has("_links"));
+            assertFalse(person.has("links"));
+        }
+    }
+
+    private void assertRoundTrip(ObjectMapper binaryMapper, MediaType mediaType, String email) throws Exception {
+        JsonNode person = new JsonMapper().readTree(String.format(PERSON_JSON, email));
+
+        MvcResult result = mockMvc.perform(post("/api/people/register")
+                        .contentType(mediaType).accept(mediaType)
+                        .content(binaryMapper.writeValueAsBytes(person)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn();
+
+        JsonNode created = binaryMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(email, created.get("email").asText());
+        assertEquals("2000-04-11", created.get("birthDate").asText());
+        assertEquals("Tubarão", created.get("address").get(0).get("city").asText());
+    }
+}
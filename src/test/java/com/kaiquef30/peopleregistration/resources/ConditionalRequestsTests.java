@@ -0,0 +1,160 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConditionalRequestsTests {
+
+    private static final String PERSON_JSON = "{\"fullName\":\"Maria Atualizada\",\"email\":\"%s\",\"birthDate\":\"2000-04-11\"," +
+            "\"address\":[{\"street\":\"Rua das flores\",\"cep\":\"0984-88\",\"number\":\"756\",\"city\":\"Tubarão\",\"state\":\"Santa Catarina\"}]}";
+
+    private static final String ADDRESS_JSON = "{\"street\":\"Rua Alterada\",\"cep\":\"0984-88\",\"number\":\"756\"," +
+            "\"city\":\"Tubarão\",\"state\":\"Santa Catarina\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Test
+    void getPersonById_MatchingIfNoneMatch_ReturnsNotModifiedWithoutBody() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("etag-person@mail.com"));
+
+        String etag = mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(ETags.of(created.getVersion()), etag);
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getPersonById_AddressChanged_ReturnsNewRepresentation() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("etag-owner@mail.com"));
+        String etag = ETags.of(created.getVersion());
+
+        addressUseCase.updateAddress(address("Rua Alterada"), created.getAddress().get(0).getId(), null);
+
+        String newEtag = mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void getById_EachMediaType_GetsItsOwnTagAndVariesByAccept() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("etag-media@mail.com"));
+        String jsonEtag = ETags.of(created.getVersion());
+
+        String xmlEtag = mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_XML)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_XML))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(jsonEtag, xmlEtag);
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_XML)
+                        .header(HttpHeaders.IF_NONE_MATCH, xmlEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get("/api/people/{id}", created.getId()).accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, xmlEtag))
+                .andExpect(status().isOk());
+
+        AddressDTO address = created.getAddress().get(0);
+        String addressCborEtag = mockMvc.perform(get("/api/addresses/{id}", address.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(ETags.of(address.getVersion()), addressCborEtag);
+        mockMvc.perform(put("/api/addresses/{id}", address.getId())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, addressCborEtag).content(ADDRESS_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updatePerson_IfMatch_RejectsStaleVersionAndAcceptsCurrentOne() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("etag-update@mail.com"));
+        String etag = ETags.of(created.getVersion());
+        String body = String.format(PERSON_JSON, "etag-update@mail.com");
+
+        String newEtag = mockMvc.perform(put("/api/people/update/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, etag).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+
+        mockMvc.perform(put("/api/people/update/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, etag).content(body))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateAddress_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("etag-address@mail.com"));
+        AddressDTO address = created.getAddress().get(0);
+
+        mockMvc.perform(put("/api/addresses/{id}", address.getId())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, ETags.of(address.getVersion())).content(ADDRESS_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(address.getVersion() + 1)));
+
+        mockMvc.perform(put("/api/addresses/{id}", address.getId())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, ETags.of(address.getVersion())).content(ADDRESS_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private static PersonDTO person(String email) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail(email);
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address("Rua das flores"))));
+        return personDTO;
+    }
+
+    private static AddressDTO address(String street) {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet(street);
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
@@ -0,0 +1,63 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ExportTimeoutTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportPeople_BothFormats_UseTheExportTimeout() throws Exception {
+        for (MediaType format : new MediaType[]{MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_XML}) {
+            MvcResult result = mockMvc.perform(get("/api/people/export").accept(format).with(request -> {
+                        request.setRemoteAddr("10.50.60.70");
+                        return request;
+                    }))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            assertEquals(PersonResource.EXPORT_TIMEOUT.toMillis(), result.getRequest().getAsyncContext().getTimeout());
+        }
+    }
+
+    @Test
+    void exportPeople_AnyOrNoAccept_StreamsNdjson() throws Exception {
+        MockHttpServletRequestBuilder[] requests = {
+                get("/api/people/export").accept(MediaType.ALL).with(remoteAddr("10.50.60.71")),
+                get("/api/people/export").with(remoteAddr("10.50.60.72"))};
+        for (MockHttpServletRequestBuilder export : requests) {
+            MvcResult result = mockMvc.perform(export)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        }
+    }
+
+    private static RequestPostProcessor remoteAddr(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
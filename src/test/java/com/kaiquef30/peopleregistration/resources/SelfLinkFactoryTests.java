@@ -0,0 +1,54 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelfLinkFactoryTests {
+
+    private final SelfLinkFactory selfLinkFactory = new SelfLinkFactory();
+
+    @BeforeEach
+    void setUp() {
+        var request = new MockHttpServletRequest("GET", "/api/people");
+        request.setScheme("https");
+        request.setServerName("people.example.com");
+        request.setServerPort(8443);
+        request.setContextPath("/registry");
+        request.setRequestURI("/registry/api/people");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void people_MatchesMethodOnLink() {
+        Link expected = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonResource.class).getPersonById(42L, null, null))
+                .withSelfRel().expand();
+
+        Link link = selfLinkFactory.people().apply(42L);
+        assertEquals(expected.getHref(), link.getHref());
+        assertEquals(expected.getRel(), link.getRel());
+        assertEquals("https://people.example.com:8443/registry/api/people/42", expected.getHref());
+    }
+
+    @Test
+    void addresses_MatchesMethodOnLink() {
+        Link expected = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AddressResource.class).getAddressById(7L, null))
+                .withSelfRel();
+
+        Link link = selfLinkFactory.addresses().apply(7L);
+        assertEquals(expected.getHref(), link.getHref());
+        assertEquals(expected.getRel(), link.getRel());
+    }
+}
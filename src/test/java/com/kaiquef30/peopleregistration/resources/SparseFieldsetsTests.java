@@ -0,0 +1,133 @@
+package com.kaiquef30.peopleregistration.resources;
+
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SparseFieldsetsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllPeople_NameAndEmail_ReadsNoEntitiesAndOmitsTheOtherFields() throws Exception {
+        personUseCase.createPerson(person("fields-list@mail.com"));
+        assertTrue(changeLog.awaitDrained(5000));
+        statistics.clear();
+
+        String person = "$._embedded.personList[?(@.email == 'fields-list@mail.com')]";
+        mockMvc.perform(get("/api/people").param("fields", "fullName,email").param("size", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(person + ".fullName").value("Maria Drummond Rodrigues"))
+                .andExpect(jsonPath(person + ".birthDate").doesNotExist())
+                .andExpect(jsonPath(person + ".address").doesNotExist())
+                .andExpect(jsonPath(person + "._links.self.href").exists());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void getAllPeople_WithAddress_ReadsAddressesAsRows() throws Exception {
+        personUseCase.createPerson(person("fields-address@mail.com"));
+        assertTrue(changeLog.awaitDrained(5000));
+        statistics.clear();
+
+        String person = "$._embedded.personList[?(@.email == 'fields-address@mail.com')]";
+        mockMvc.perform(get("/api/people").param("fields", "email,address").param("size", "1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(person + ".fullName").doesNotExist())
+                .andExpect(jsonPath(person + ".address[*]", hasSize(1)))
+                .andExpect(jsonPath(person + ".address[0].street").value("Rua das flores"));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getPersonById_Fields_TagsTheNarrowedRepresentationSeparately() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("fields-get@mail.com"));
+
+        String etag = mockMvc.perform(get("/api/people/{id}", created.getId()).param("fields", "email")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("fields-get@mail.com"))
+                .andExpect(jsonPath("$.fullName").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(ETags.of(created.getVersion()), etag);
+
+        mockMvc.perform(get("/api/people/{id}", created.getId()).param("fields", "email")
+                        .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/people/{id}", created.getId())
+                        .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("Maria Drummond Rodrigues"));
+    }
+
+    @Test
+    void getAllPeople_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/people").param("fields", "fullName,cpf").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static PersonDTO person(String email) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail(email);
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address())));
+        return personDTO;
+    }
+
+    private static AddressDTO address() {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet("Rua das flores");
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
@@ -0,0 +1,23 @@
+package com.kaiquef30.peopleregistration.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTextTests {
+
+    @Test
+    void normalize_FoldsCaseAccentsAndWhitespace() {
+        assertEquals("joao goncalves joao@mail.com", SearchText.normalize("  João   GONÇALVES joao@Mail.com "));
+    }
+
+    @Test
+    void normalize_Null_ReturnsEmpty() {
+        assertEquals("", SearchText.normalize(null));
+    }
+
+    @Test
+    void containsPattern_EscapesLikeWildcards() {
+        assertEquals("%50\\%\\_off\\\\%", SearchText.containsPattern("50%_OFF\\"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.dtos.RegionCountDTO;
+import com.kaiquef30.peopleregistration.repositories.AddressRegionCountRepository;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AddressRegionCountsTests {
+
+    private static final String STATE = "Estado das Contagens";
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AddressRegionCounter addressRegionCounter;
+
+    @Autowired
+    private AddressRegionCountRepository addressRegionCountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void counts_FollowAddressAndPersonWrites() {
+        PersonDTO maria = personUseCase.createPerson(person("counts-maria@mail.com",
+                address("Tubarão", "88700-001"), address("Tubarão", "88700-002"), address("Laguna", "88790-000")));
+        PersonDTO joao = personUseCase.createPerson(person("counts-joao@mail.com", address("Laguna", "88790-000")));
+        assertCountsMatchGroupBy();
+        assertEquals(List.of(4L, 2L), stateTotals());
+
+        AddressDTO created = addressUseCase.createAddress(address("Imbituba", "88780-000"), joao.getId());
+        assertCountsMatchGroupBy();
+
+        addressUseCase.updateAddress(address("Tubarão", "88700-003"), created.getId(), null);
+        assertCountsMatchGroupBy();
+
+        addressUseCase.deleteAddress(maria.getAddress().get(2).getId());
+        assertCountsMatchGroupBy();
+
+        PersonDTO update = person("counts-maria@mail.com", address("Imbituba", "88780-000"));
+        personUseCase.updatePerson(update, maria.getId(), null);
+        assertCountsMatchGroupBy();
+
+        personUseCase.deletePerson(joao.getId());
+        assertCountsMatchGroupBy();
+        assertEquals(List.of(1L, 1L), stateTotals());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_EmptyAggregate_BuildsItOnceEvenWhenAnotherInstanceRaces() {
+        personUseCase.createPerson(person("counts-build@mail.com",
+                address("Tubarão", "88700-001"), address("Laguna", "88790-000")));
+        jdbcTemplate.update("insert into tb_address (id, street, city, state, is_main_address, version) " +
+                "select max(id) + 1000, 'Rua Sem Dono', 'Tubarão', ?, false, 0 from tb_address", STATE);
+        jdbcTemplate.update("delete from tb_address_region_counts");
+
+        addressRegionCounter.afterSingletonsInstantiated();
+        assertCountsMatchGroupBy();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            addressRegionCountRepository.insertCityTotals();
+            addressRegionCountRepository.insertStateTotals();
+        });
+        assertCountsMatchGroupBy();
+    }
+
+    @Test
+    void findAddresses_FiltersByCepOrStateAndCity() {
+        personUseCase.createPerson(person("counts-filter@mail.com",
+                address("Garopaba", "88495-000"), address("Garopaba", "88495-001"), address("Paulo Lopes", "88490-000")));
+
+        assertEquals(1, addressUseCase.findAddresses("88495-001", null, null, PageRequest.of(0, 10)).getContent().size());
+        assertEquals(2, addressUseCase.findAddresses(null, STATE, "Garopaba", PageRequest.of(0, 10)).getContent().size());
+    }
+
+    private void assertCountsMatchGroupBy() {
+        Map<String, List<Long>> expected = jdbcTemplate.query(
+                        "select city, count(*) addresses, count(distinct person_id) people from tb_address " +
+                                "where state = ? and person_id is not null group by city",
+                        (rs, i) -> Map.entry(rs.getString("city"), List.of(rs.getLong("addresses"), rs.getLong("people"))), STATE)
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        Map<String, List<Long>> actual = addressUseCase.getCityCounts(STATE).stream()
+                .collect(Collectors.toMap(RegionCountDTO::getCity, count -> List.of(count.getAddresses(), count.getPeople())));
+        assertEquals(expected, actual);
+
+        Long distinctPeople = jdbcTemplate.queryForObject(
+                "select count(distinct person_id) from tb_address where state = ?", Long.class, STATE);
+        Long addresses = jdbcTemplate.queryForObject(
+                "select count(*) from tb_address where state = ? and person_id is not null", Long.class, STATE);
+        assertEquals(List.of(addresses, distinctPeople), stateTotals());
+    }
+
+    private List<Long> stateTotals() {
+        return addressUseCase.getStateCounts().stream()
+                .filter(count -> STATE.equals(count.getState()))
+                .map(count -> List.of(count.getAddresses(), count.getPeople()))
+                .findFirst()
+                .orElse(List.of(0L, 0L));
+    }
+
+    private static PersonDTO person(String email, AddressDTO... addresses) {
+        var person = new PersonDTO();
+        person.setFullName("Pessoa Contagem");
+        person.setEmail(email);
+        person.setBirthDate(LocalDate.of(1990, 1, 1));
+        person.setAddress(new ArrayList<>(List.of(addresses)));
+        return person;
+    }
+
+    private static AddressDTO address(String city, String cep) {
+        var address = new AddressDTO();
+        address.setStreet("Rua Principal");
+        address.setCep(cep);
+        address.setNumber("1");
+        address.setCity(city);
+        address.setState(STATE);
+        return address;
+    }
+}
@@ -1,29 +1,41 @@
 package com.kaiquef30.peopleregistration.useCases.impl;
 
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCache;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCacheEvictor;
 import com.kaiquef30.peopleregistration.domains.Address;
 import com.kaiquef30.peopleregistration.domains.Person;
 import com.kaiquef30.peopleregistration.dtos.AddressDTO;
 import com.kaiquef30.peopleregistration.exceptions.ResourceNotFoundException;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.AddressRegionCountRepository;
 import com.kaiquef30.peopleregistration.repositories.AddressRepository;
 import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.resources.SelfLinkFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
+import org.mockito.Spy;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,18 +48,40 @@ public class AddressUseCaseImplTests {
     @Mock
     private PersonRepository personRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private AddressMapper addressMapper = new AddressMapper();
 
     @Mock
     private PagedResourcesAssembler<AddressDTO> pagedResourcesAssembler;
 
+    @Mock
+    private ReadCacheEvictor readCacheEvictor;
+
+    @Mock
+    private ReadCache readCache;
+
+    @Mock
+    private AddressRegionCounter addressRegionCounter;
+
+    @Mock
+    private AddressRegionCountRepository addressRegionCountRepository;
+
+    @Mock
+    private SelfLinkFactory selfLinkFactory;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private PersonReadModel personReadModel;
+
     @InjectMocks
     private AddressUseCaseImpl addressUseCase;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(readCache.getAddress(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -55,7 +89,6 @@ public class AddressUseCaseImplTests {
         Pageable pageable = Pageable.unpaged();
         PageImpl<Address> addressPage = new PageImpl<>(Collections.singletonList(new Address()));
         when(addressRepository.findAll(pageable)).thenReturn(addressPage);
-        when(modelMapper.map(any(), eq(AddressDTO.class))).thenReturn(new AddressDTO());
 
         addressUseCase.getAllAddresses(pageable);
 
@@ -66,28 +99,51 @@ public class AddressUseCaseImplTests {
     void getAddressById_ExistingId_ReturnsEntityModel() {
         Long id = 1L;
         var address = new Address();
+        var addressDTO = new AddressDTO();
         when(addressRepository.findById(id)).thenReturn(Optional.of(address));
-        when(modelMapper.map(address, AddressDTO.class)).thenReturn(new AddressDTO());
+        when(addressMapper.toDTO(address)).thenReturn(addressDTO);
+        when(selfLinkFactory.addressesCollection()).thenReturn(Link.of("http://localhost/api/addresses", "addresses"));
 
-        addressUseCase.getAddressById(id);
+        assertSame(addressDTO, addressUseCase.getAddressById(id).getContent());
 
-        verify(modelMapper).map(address, AddressDTO.class);
+        verify(readCache).getAddress(eq(id), any());
     }
 
     @Test
     void createAddress_ValidAddressDTO_ReturnsAddressDTO() {
         Long personId = 1L;
         var addressDTO = new AddressDTO();
+        addressDTO.setStreet("Rua das flores");
         var person = new Person();
         when(personRepository.findById(personId)).thenReturn(Optional.of(person));
-        when(modelMapper.map(addressDTO, Address.class)).thenReturn(new Address());
-        when(addressRepository.save(any())).thenReturn(new Address());
-        when(modelMapper.map(any(), eq(AddressDTO.class))).thenReturn(addressDTO);
+        when(addressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         AddressDTO createdAddress = addressUseCase.createAddress(addressDTO, personId);
 
         assertNotNull(createdAddress);
-        assertEquals(addressDTO, createdAddress);
+        assertEquals(addressDTO.getStreet(), createdAddress.getStreet());
+        verify(addressRepository).save(argThat(address -> address.getPerson() == person));
+        verify(readCacheEvictor).evictPerson(personId);
+    }
+
+    @Test
+    void createAddress_MainAddress_DemotesTheCurrentMainAddress() {
+        Long personId = 1L;
+        var addressDTO = new AddressDTO();
+        addressDTO.setMainAddress(true);
+        var person = new Person();
+        var currentMain = new Address();
+        currentMain.setId(7L);
+        currentMain.setMainAddress(true);
+        person.getAddress().add(currentMain);
+        when(personRepository.findById(personId)).thenReturn(Optional.of(person));
+        when(addressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AddressDTO createdAddress = addressUseCase.createAddress(addressDTO, personId);
+
+        assertTrue(createdAddress.isMainAddress());
+        assertFalse(currentMain.isMainAddress());
+        verify(readCacheEvictor).evictAddress(7L);
     }
 
     @Test
@@ -103,61 +159,70 @@ public class AddressUseCaseImplTests {
     void updateAddress_ExistingId_ReturnsUpdatedAddressDTO() {
         Long id = 1L;
         var addressDTO = new AddressDTO();
+        addressDTO.setCity("Tubarão");
         var existingAddress = new Address();
+        existingAddress.setId(id);
         when(addressRepository.findById(id)).thenReturn(Optional.of(existingAddress));
-        when(addressRepository.save(existingAddress)).thenReturn(existingAddress);
-        when(modelMapper.map(existingAddress, AddressDTO.class)).thenReturn(addressDTO);
+        when(addressRepository.saveAndFlush(existingAddress)).thenReturn(existingAddress);
 
-        AddressDTO updatedAddress = addressUseCase.updateAddress(addressDTO, id);
+        AddressDTO updatedAddress = addressUseCase.updateAddress(addressDTO, id, null);
 
         assertNotNull(updatedAddress);
-        assertEquals(addressDTO, updatedAddress);
+        assertEquals(id, updatedAddress.getId());
+        assertEquals("Tubarão", updatedAddress.getCity());
+        verify(readCacheEvictor).evictAddressWithOwner(existingAddress);
     }
 
     @Test
     void deleteAddress_ExistingId_DeletesAddress() {
         Long id = 1L;
+        var address = new Address();
+        when(addressRepository.findById(id)).thenReturn(Optional.of(address));
 
         addressUseCase.deleteAddress(id);
 
-        verify(addressRepository).deleteById(id);
+        verify(addressRepository).delete(address);
+        verify(readCacheEvictor).evictAddressWithOwner(address);
     }
 
     @Test
-    void setMainAddress_ValidIds_SetsMainAddress() {
+    void setMainAddress_ValidIds_SwitchesMainAddressAndEvictsCaches() {
         Long personId = 1L;
-        Long addressId = 1L;
+        Long addressId = 2L;
         var person = new Person();
-        var address = new Address();
-        address.setId(addressId);
-        person.getAddress().add(address);
+        when(addressRepository.switchMainAddress(addressId, personId)).thenReturn(List.of(2L, 3L));
         when(personRepository.findById(personId)).thenReturn(Optional.of(person));
-        when(addressRepository.findById(addressId)).thenReturn(Optional.of(address));
-        when(personRepository.save(person)).thenReturn(person);
 
-        addressUseCase.setMainAddress(personId, addressId);
+        addressUseCase.setMainAddress(addressId, personId);
 
-        assertTrue(person.getAddress().stream().anyMatch(Address::isMainAddress));
+        assertNotNull(person.getModifiedAt());
+        verify(readCacheEvictor).evictPerson(personId);
+        verify(readCacheEvictor).evictAddress(2L);
+        verify(readCacheEvictor).evictAddress(3L);
+        verify(personRepository, never()).save(any());
     }
 
     @Test
     void setMainAddress_InvalidPersonId_ThrowsResourceNotFoundException() {
         Long personId = 1L;
         Long addressId = 1L;
-        when(personRepository.findById(personId)).thenReturn(Optional.empty());
+        when(addressRepository.switchMainAddress(addressId, personId)).thenReturn(List.of());
+        when(personRepository.existsById(personId)).thenReturn(false);
 
-        assertThrows(ResourceNotFoundException.class, () -> addressUseCase.setMainAddress(personId, addressId));
+        var exception = assertThrows(ResourceNotFoundException.class, () -> addressUseCase.setMainAddress(addressId, personId));
+        assertTrue(exception.getMessage().startsWith("Pessoa"));
     }
 
 
     @Test
-    void setMainAddress_InvalidAddressId_ThrowsResourceNotFoundException() {
+    void setMainAddress_AddressNotOwnedByPerson_ThrowsResourceNotFoundException() {
         Long personId = 1L;
         Long addressId = 1L;
-        var person = new Person();
-        when(personRepository.findById(personId)).thenReturn(Optional.of(person));
-        when(addressRepository.findById(addressId)).thenReturn(Optional.empty());
+        when(addressRepository.switchMainAddress(addressId, personId)).thenReturn(List.of());
+        when(personRepository.existsById(personId)).thenReturn(true);
 
-        assertThrows(ResourceNotFoundException.class, () -> addressUseCase.setMainAddress(personId, addressId));
+        var exception = assertThrows(ResourceNotFoundException.class, () -> addressUseCase.setMainAddress(addressId, personId));
+        assertTrue(exception.getMessage().startsWith("Endereço"));
+        verify(readCacheEvictor, never()).evictPerson(any());
     }
 }
@@ -0,0 +1,157 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import com.kaiquef30.peopleregistration.repositories.AddressRepository;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class MergePatchTests {
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void patchPerson_EmailOnly_UpdatesOnlyThePersonRow() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("patch-before@mail.com"));
+        Person before = personRepository.findById(created.getId()).orElseThrow();
+        Address addressBefore = addressRepository.findById(created.getAddress().get(0).getId()).orElseThrow();
+        statistics.clear();
+
+        PersonDTO patched = personUseCase.patchPerson(objectMapper.readTree("{\"email\":\"patch-after@mail.com\"}"),
+                created.getId(), null);
+
+        assertEquals(1, registrationStatistics(EntityStatistics::getUpdateCount));
+        assertEquals(0, registrationStatistics(EntityStatistics::getInsertCount));
+        assertEquals(0, registrationStatistics(EntityStatistics::getDeleteCount));
+        assertEquals("patch-after@mail.com", patched.getEmail());
+        assertEquals("Maria Drummond Rodrigues", patched.getFullName());
+        assertEquals(1, patched.getAddress().size());
+        assertEquals(before.getVersion() + 1, personRepository.findById(created.getId()).orElseThrow().getVersion());
+        assertEquals(addressBefore.getVersion(),
+                addressRepository.findById(addressBefore.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void patchPerson_NoChanges_DoesNotWrite() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("patch-noop@mail.com"));
+        statistics.clear();
+
+        PersonDTO patched = personUseCase.patchPerson(objectMapper.readTree("{\"email\":\"patch-noop@mail.com\"}"),
+                created.getId(), null);
+
+        assertEquals(0, registrationStatistics(EntityStatistics::getUpdateCount));
+        assertEquals(created.getVersion(), patched.getVersion());
+    }
+
+    @Test
+    void patchPerson_NullRequiredField_ThrowsBadRequestException() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("patch-null@mail.com"));
+
+        assertThrows(BadRequestException.class, () -> personUseCase.patchPerson(
+                objectMapper.readTree("{\"fullName\":null}"), created.getId(), null));
+    }
+
+    @Test
+    void updatePerson_AddressesSentBackInAnotherOrder_KeepsEveryAddressRow() {
+        PersonDTO personDTO = person("put-order@mail.com");
+        AddressDTO second = address();
+        second.setStreet("Rua Nova");
+        personDTO.getAddress().add(second);
+        PersonDTO created = personUseCase.createPerson(personDTO);
+        statistics.clear();
+
+        created.setAddress(new ArrayList<>(List.of(created.getAddress().get(1), created.getAddress().get(0))));
+        created.setEmail("put-order-after@mail.com");
+        PersonDTO updated = personUseCase.updatePerson(created, created.getId(), null);
+
+        assertEquals(1, registrationStatistics(EntityStatistics::getUpdateCount));
+        assertEquals(0, registrationStatistics(EntityStatistics::getInsertCount));
+        assertEquals(0, registrationStatistics(EntityStatistics::getDeleteCount));
+        assertEquals("Rua das flores", updated.getAddress().get(0).getStreet());
+        assertEquals("Rua Nova", updated.getAddress().get(1).getStreet());
+    }
+
+    @Test
+    void patchAddress_SingleField_KeepsTheOthers() throws Exception {
+        PersonDTO created = personUseCase.createPerson(person("patch-address@mail.com"));
+        AddressDTO address = created.getAddress().get(0);
+
+        AddressDTO patched = addressUseCase.patchAddress(objectMapper.readTree("{\"number\":\"900\"}"),
+                address.getId(), address.getVersion());
+
+        assertEquals("900", patched.getNumber());
+        assertEquals("Rua das flores", patched.getStreet());
+        assertEquals(address.getVersion() + 1, patched.getVersion());
+    }
+
+    /**
+     * Counts only people and addresses; the change log writes its own rows asynchronously on another thread.
+     */
+    private long registrationStatistics(ToLongFunction<EntityStatistics> count) {
+        return count.applyAsLong(statistics.getEntityStatistics(Person.class.getName()))
+                + count.applyAsLong(statistics.getEntityStatistics(Address.class.getName()));
+    }
+
+    private static PersonDTO person(String email) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
+        personDTO.setEmail(email);
+        personDTO.setBirthDate(LocalDate.of(2000, 4, 11));
+        personDTO.setAddress(new ArrayList<>(List.of(address())));
+        return personDTO;
+    }
+
+    private static AddressDTO address() {
+        var addressDTO = new AddressDTO();
+        addressDTO.setStreet("Rua das flores");
+        addressDTO.setCep("0984-88");
+        addressDTO.setNumber("756");
+        addressDTO.setCity("Tubarão");
+        addressDTO.setState("Santa Catarina");
+        return addressDTO;
+    }
+}
@@ -0,0 +1,147 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationResultDTO;
+import com.kaiquef30.peopleregistration.dtos.BulkRegistrationStatus;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
+import com.kaiquef30.peopleregistration.index.EmailIndex;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PeopleBulkRegistrationUseCaseImpl.class, PersonMapper.class, AddressMapper.class, EmailIndex.class,
+        AddressRegionCounter.class})
+public class PeopleBulkRegistrationUseCaseImplTests {
+
+    @Autowired
+    private PeopleBulkRegistrationUseCaseImpl bulkRegistrationUseCase;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ChangeLog changeLog;
+
+    @MockBean
+    private PersonReadModel personReadModel;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        var existing = new Person();
+        existing.setFullName("Existing");
+        existing.setEmail("existing@mail.com");
+        existing.setBirthDate(LocalDate.of(1990, 1, 1));
+        entityManager.persist(existing);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void registerPeople_ReportsOutcomePerItem() {
+        var invalid = personDTO("invalid");
+        invalid.setEmail("not-an-email");
+        List<PersonDTO> people = List.of(
+                personDTO("first"),
+                personDTO("existing"),
+                invalid,
+                personDTO("first"),
+                personDTO("second"));
+
+        BulkRegistrationResultDTO result = bulkRegistrationUseCase.registerPeople(people);
+        entityManager.flush();
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getConflicts());
+        assertEquals(1, result.getInvalid());
+        assertEquals(BulkRegistrationStatus.CREATED, result.getItems().get(0).getStatus());
+        assertNotNull(result.getItems().get(0).getId());
+        assertEquals(BulkRegistrationStatus.CONFLICT, result.getItems().get(1).getStatus());
+        assertEquals(BulkRegistrationStatus.INVALID, result.getItems().get(2).getStatus());
+        assertEquals(List.of("email: must be a well-formed email address"), result.getItems().get(2).getErrors());
+        assertEquals(BulkRegistrationStatus.CONFLICT, result.getItems().get(3).getStatus());
+        assertEquals(4, result.getItems().get(4).getIndex());
+        assertEquals(BulkRegistrationStatus.CREATED, result.getItems().get(4).getStatus());
+        assertEquals(3, personRepository.count());
+    }
+
+    @Test
+    void registerPeople_ChecksEmailsWithOneQueryAndBatchesInserts() {
+        List<PersonDTO> people = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            people.add(personDTO("person" + i));
+        }
+
+        bulkRegistrationUseCase.registerPeople(people);
+        entityManager.flush();
+
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(300, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void registerPeople_RejectsOversizedBatch() {
+        List<PersonDTO> people = Collections.nCopies(PeopleBulkRegistrationUseCaseImpl.MAX_BATCH_SIZE + 1, personDTO("x"));
+
+        assertThrows(BadRequestException.class, () -> bulkRegistrationUseCase.registerPeople(people));
+    }
+
+    private static PersonDTO personDTO(String name) {
+        var personDTO = new PersonDTO();
+        personDTO.setFullName(name);
+        personDTO.setEmail(name + "@mail.com");
+        personDTO.setBirthDate(LocalDate.of(1995, 5, 5));
+        List<AddressDTO> addresses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            var addressDTO = new AddressDTO();
+            addressDTO.setStreet("Street " + i);
+            addressDTO.setCep("88700-000");
+            addressDTO.setNumber(String.valueOf(i));
+            addressDTO.setCity("Tubarão");
+            addressDTO.setState("Santa Catarina");
+            addressDTO.setMainAddress(i == 0);
+            addresses.add(addressDTO);
+        }
+        personDTO.setAddress(addresses);
+        return personDTO;
+    }
+}
@@ -0,0 +1,92 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.kaiquef30.peopleregistration.domains.Address;
+import com.kaiquef30.peopleregistration.domains.Person;
+import com.kaiquef30.peopleregistration.useCases.PeopleExportFormat;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PeopleExportUseCaseImpl.class)
+public class PeopleExportUseCaseImplTests {
+
+    @Autowired
+    private PeopleExportUseCaseImpl peopleExportUseCase;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            var person = new Person();
+            person.setFullName("Person " + i);
+            person.setEmail("person" + i + "@mail.com");
+            person.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(i));
+            for (int j = 0; j < i; j++) {
+                var address = new Address();
+                address.setStreet("Street " + j);
+                address.setCep("88700-00" + j);
+                address.setNumber(String.valueOf(j));
+                address.setCity("Tubarão");
+                address.setState("Santa Catarina");
+                address.setMainAddress(j == 0);
+                address.setPerson(person);
+                person.getAddress().add(address);
+            }
+            entityManager.persist(person);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportPeople_Ndjson_WritesOneLinePerPersonWithAddresses() throws Exception {
+        var outputStream = new ByteArrayOutputStream();
+
+        peopleExportUseCase.exportPeople(outputStream, PeopleExportFormat.NDJSON);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+
+        var objectMapper = new ObjectMapper();
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode person = objectMapper.readTree(lines[i]);
+            assertEquals("Person " + i, person.get("fullName").asText());
+            assertEquals("1990-01-0" + (i + 1), person.get("birthDate").asText());
+            assertEquals(i, person.get("address").size());
+        }
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertTrue(last.get("address").get(0).get("mainAddress").asBoolean());
+        assertEquals("Street 1", last.get("address").get(1).get("street").asText());
+    }
+
+    @Test
+    void exportPeople_Xml_WritesSingleDocument() throws Exception {
+        var outputStream = new ByteArrayOutputStream();
+
+        peopleExportUseCase.exportPeople(outputStream, PeopleExportFormat.XML);
+
+        String xml = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(xml.startsWith("<people>"));
+        JsonNode people = new XmlMapper().readTree(xml).get("person");
+        assertEquals(3, people.size());
+        assertEquals("person2@mail.com", people.get(2).get("email").asText());
+        assertEquals(2, people.get(2).get("address").get("address").size());
+    }
+}
@@ -1,27 +1,45 @@
 package com.kaiquef30.peopleregistration.useCases.impl;
 
+import com.kaiquef30.peopleregistration.audit.ChangeLog;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCache;
+import com.kaiquef30.peopleregistration.configs.cache.ReadCacheEvictor;
 import com.kaiquef30.peopleregistration.domains.Address;
 import com.kaiquef30.peopleregistration.domains.Person;
 import com.kaiquef30.peopleregistration.dtos.AddressDTO;
 import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonField;
+import com.kaiquef30.peopleregistration.exceptions.BadRequestException;
 import com.kaiquef30.peopleregistration.exceptions.ConflictException;
 import com.kaiquef30.peopleregistration.exceptions.ResourceNotFoundException;
+import com.kaiquef30.peopleregistration.index.EmailIndex;
+import com.kaiquef30.peopleregistration.mappers.AddressMapper;
+import com.kaiquef30.peopleregistration.mappers.PersonMapper;
+import com.kaiquef30.peopleregistration.readmodel.PersonDocumentRenderer;
+import com.kaiquef30.peopleregistration.readmodel.PersonReadModel;
+import com.kaiquef30.peopleregistration.repositories.AddressRepository;
 import com.kaiquef30.peopleregistration.repositories.PersonRepository;
+import com.kaiquef30.peopleregistration.repositories.projections.PersonSummary;
+import com.kaiquef30.peopleregistration.resources.SelfLinkFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,18 +51,49 @@ public class PersonUseCaseImplTests {
     @Mock
     private PersonRepository personRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private PersonMapper personMapper = new PersonMapper(new AddressMapper());
 
     @Mock
     private PagedResourcesAssembler<PersonDTO> pagedResourcesAssembler;
 
+    @Mock
+    private ReadCacheEvictor readCacheEvictor;
+
+    @Mock
+    private ReadCache readCache;
+
+    @Spy
+    private EmailIndex emailIndex = new EmailIndex();
+
+    @Mock
+    private AddressRegionCounter addressRegionCounter;
+
+    @Mock
+    private SelfLinkFactory selfLinkFactory;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Spy
+    private AddressMapper addressMapper = new AddressMapper();
+
+    @Mock
+    private PersonReadModel personReadModel;
+
+    @Mock
+    private PersonDocumentRenderer personDocumentRenderer;
+
     @InjectMocks
     private PersonUseCaseImpl personUseCase;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(readCache.getPerson(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
 
@@ -52,8 +101,7 @@ public class PersonUseCaseImplTests {
     void getAllPersons_ReturnsPageOfPersonDTO() {
         Pageable pageable = Pageable.unpaged();
         PageImpl<Person> personPage = new PageImpl<>(Collections.singletonList(new Person()));
-        when(personRepository.findAll(pageable)).thenReturn(personPage);
-        when(modelMapper.map(any(), eq(PersonDTO.class))).thenReturn(new PersonDTO());
+        when(personRepository.findAllWithAddress(pageable)).thenReturn(personPage);
 
         personUseCase.getAllPeople(pageable);
 
@@ -64,33 +112,69 @@ public class PersonUseCaseImplTests {
     void getPersonById_ExistingId_ReturnsEntityModel() {
         Long id = 1L;
         var person = new Person();
+        var personDTO = new PersonDTO();
         when(personRepository.findById(id)).thenReturn(Optional.of(person));
-        when(modelMapper.map(person, PersonDTO.class)).thenReturn(new PersonDTO());
+        when(personMapper.toDTO(person)).thenReturn(personDTO);
+        when(selfLinkFactory.peopleCollection()).thenReturn(Link.of("http://localhost/api/people", "Persons"));
+
+        assertSame(personDTO, personUseCase.getPersonById(id).getContent());
 
-        personUseCase.getPersonById(id);
+        verify(readCache).getPerson(eq(id), any());
+    }
 
-        verify(modelMapper).map(person, PersonDTO.class);
+    @Test
+    void getPersonById_FieldsWithoutAddress_ReadsOnlyTheRequestedColumns() {
+        Long id = 1L;
+        when(personRepository.findSummaryById(id, List.of("email", "modifiedAt")))
+                .thenReturn(Optional.of(new PersonSummary(id, LocalDateTime.of(2024, 5, 1, 10, 0), null, "kaique@gmail.com", null)));
+        when(selfLinkFactory.peopleCollection()).thenReturn(Link.of("http://localhost/api/people", "Persons"));
+
+        PersonDTO personDTO = personUseCase.getPersonById(id, EnumSet.of(PersonField.EMAIL)).getContent();
+
+        assertEquals("kaique@gmail.com", personDTO.getEmail());
+        assertNull(personDTO.getFullName());
+        assertNull(personDTO.getAddress());
+        assertNotNull(personDTO.getVersion());
+        verify(personRepository, never()).findById(any());
+        verifyNoInteractions(addressRepository);
     }
 
     @Test
     void createPerson_SetsAddressPersonRelationship() {
         PersonDTO personDTO = new PersonDTO();
+        personDTO.setEmail("kaique@gmail.com");
         personDTO.setAddress(Collections.singletonList(new AddressDTO()));
-        var person = new Person();
-        when(modelMapper.map(personDTO, Person.class)).thenReturn(person);
         when(personRepository.existsByEmail(anyString())).thenReturn(false);
-        when(personRepository.save(person)).thenReturn(person);
-        when(modelMapper.map(person, PersonDTO.class)).thenReturn(personDTO);
+        when(personRepository.save(any(Person.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         PersonDTO createdPerson = personUseCase.createPerson(personDTO);
 
         assertNotNull(createdPerson);
         assertNotNull(createdPerson.getAddress());
         assertFalse(createdPerson.getAddress().isEmpty());
-        assertEquals(createdPerson, personDTO);
-        for (Address address : person.getAddress()) {
-            assertSame(person, address.getPerson());
-        }
+        assertEquals(personDTO.getEmail(), createdPerson.getEmail());
+        verify(personRepository).save(argThat(person -> {
+            for (Address address : person.getAddress()) {
+                assertSame(person, address.getPerson());
+            }
+            return person.getAddress().size() == 1;
+        }));
+    }
+
+    @Test
+    void createPerson_SeveralMainAddresses_ThrowsConflictException() {
+        var personDTO = new PersonDTO();
+        personDTO.setEmail("kaique@gmail.com");
+        var first = new AddressDTO();
+        first.setMainAddress(true);
+        var second = new AddressDTO();
+        second.setMainAddress(true);
+        personDTO.setAddress(List.of(first, second));
+
+        var exception = assertThrows(ConflictException.class, () -> personUseCase.createPerson(personDTO));
+
+        assertEquals("Uma pessoa pode ter apenas um endereço principal", exception.getMessage());
+        verify(personRepository, never()).save(any(Person.class));
     }
 
     @Test
@@ -102,32 +186,71 @@ public class PersonUseCaseImplTests {
         assertThrows(ConflictException.class, () -> personUseCase.createPerson(personDTO));
     }
 
+    @Test
+    void createPerson_EmailRuledOutByIndex_SkipsDatabaseLookup() {
+        emailIndex.markReady();
+        var personDTO = new PersonDTO();
+        personDTO.setEmail("new@gmail.com");
+        personDTO.setAddress(Collections.emptyList());
+        when(personRepository.save(any(Person.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        personUseCase.createPerson(personDTO);
+
+        verify(personRepository, never()).existsByEmail(anyString());
+        assertTrue(emailIndex.mightContain("new@gmail.com"));
+    }
+
+    @Test
+    void createPerson_EmailPossiblyInIndex_ChecksDatabase() {
+        emailIndex.add("kaique@gmail.com");
+        emailIndex.markReady();
+        var personDTO = new PersonDTO();
+        personDTO.setEmail("Kaique@gmail.com");
+        when(personRepository.existsByEmail("Kaique@gmail.com")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> personUseCase.createPerson(personDTO));
+    }
+
     @Test
     void updatePerson_ExistingId_ReturnsUpdatedPersonDTO() {
         Long id = 1L;
         var personDTO = new PersonDTO();
+        personDTO.setFullName("Maria Drummond Rodrigues");
         var existingPerson = new Person();
+        existingPerson.setId(id);
         when(personRepository.findById(id)).thenReturn(Optional.of(existingPerson));
-        when(personRepository.save(existingPerson)).thenReturn(existingPerson);
-        when(modelMapper.map(existingPerson, PersonDTO.class)).thenReturn(personDTO);
+        when(personRepository.saveAndFlush(existingPerson)).thenReturn(existingPerson);
 
-        PersonDTO updatedPerson = personUseCase.updatePerson(personDTO, id);
+        PersonDTO updatedPerson = personUseCase.updatePerson(personDTO, id, null);
 
         assertNotNull(updatedPerson);
-        assertEquals(personDTO, updatedPerson);
+        assertEquals(id, updatedPerson.getId());
+        assertEquals(personDTO.getFullName(), updatedPerson.getFullName());
+        verify(readCacheEvictor).evictPersonWithAddresses(existingPerson);
     }
 
 
     @Test
     void deletePerson_ExistingId_DeletesPerson() {
         Long id = 1L;
+        var person = new Person();
+        when(personRepository.findById(id)).thenReturn(Optional.of(person));
 
         personUseCase.deletePerson(id);
 
-        verify(personRepository).deleteById(id);
+        verify(personRepository).delete(person);
+        verify(readCacheEvictor).evictPersonWithAddresses(person);
+        verify(emailIndex).removeAfterCommit(person.getEmail());
+        verify(personReadModel).markChanged(person.getId());
     }
 
 
+    @Test
+    void searchPeople_TooShortQuery_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> personUseCase.searchPeople(" Jo ", Pageable.unpaged()));
+        verify(personRepository, never()).searchWithAddress(anyString(), any());
+    }
+
     @Test
     void getPersonById_NonExistingId_ThrowsResourceNotFoundException() {
         Long id = 1L;
@@ -136,4 +259,13 @@ public class PersonUseCaseImplTests {
         assertThrows(ResourceNotFoundException.class, () -> personUseCase.getPersonById(id));
     }
 
+    @Test
+    void getRenderedPerson_NonExistingId_ThrowsResourceNotFoundException() {
+        Long id = 1L;
+        when(personReadModel.getDocument(id)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> personUseCase.getRenderedPerson(id));
+        verifyNoInteractions(personDocumentRenderer);
+    }
+
 }
@@ -0,0 +1,159 @@
+package com.kaiquef30.peopleregistration.useCases.impl;
+
+import com.kaiquef30.peopleregistration.dtos.AddressDTO;
+import com.kaiquef30.peopleregistration.dtos.PersonDTO;
+import com.kaiquef30.peopleregistration.useCases.AddressUseCase;
+import com.kaiquef30.peopleregistration.useCases.PersonUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SetMainAddressConcurrencyTests {
+
+    private static final int WRITERS = 6;
+
+    private static final int SWITCHES_PER_WRITER = 30;
+
+    @Autowired
+    private PersonUseCase personUseCase;
+
+    @Autowired
+    private AddressUseCase addressUseCase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void setMainAddress_ParallelSwitches_AlwaysLeaveExactlyOneMainAddress() throws Exception {
+        PersonDTO person = personUseCase.createPerson(person("concurrent-main@mail.com"));
+        Long personId = person.getId();
+        List<Long> addressIds = person.getAddress().stream().map(AddressDTO::getId).toList();
+        addressUseCase.setMainAddress(addressIds.get(0), personId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Integer> observedCounts = new ConcurrentLinkedQueue<>();
+        try {
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    int count = mainAddressCount(personId);
+                    if (count != 1) {
+                        observedCounts.add(count);
+                    }
+                }
+                return null;
+            });
+
+            List<Future<?>> writers = new ArrayList<>(WRITERS);
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < SWITCHES_PER_WRITER; j++) {
+                        Long addressId = addressIds.get(ThreadLocalRandom.current().nextInt(addressIds.size()));
+                        addressUseCase.setMainAddress(addressId, personId);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            reader.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(observedCounts.isEmpty(), "observed main address counts " + observedCounts);
+        assertEquals(1, mainAddressCount(personId));
+    }
+
+    @Test
+    void secondMainAddress_WrittenDirectly_IsRejected() {
+        PersonDTO person = personUseCase.createPerson(person("second-main@mail.com"));
+        Long personId = person.getId();
+        List<Long> addressIds = person.getAddress().stream().map(AddressDTO::getId).toList();
+        addressUseCase.setMainAddress(addressIds.get(0), personId);
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "update tb_address set is_main_address = true where id = ?", addressIds.get(1)));
+        assertEquals(1, mainAddressCount(personId));
+    }
+
+    @Test
+    void createAddress_NewMainAddress_TakesOverFromTheCurrentOne() {
+        PersonDTO person = personUseCase.createPerson(person("new-main@mail.com"));
+        Long personId = person.getId();
+        addressUseCase.setMainAddress(person.getAddress().get(0).getId(), personId);
+
+        AddressDTO address = person.getAddress().get(1);
+        address.setId(null);
+        address.setMainAddress(true);
+        AddressDTO created = addressUseCase.createAddress(address, personId);
+
+        assertEquals(List.of(created.getId()), jdbcTemplate.queryForList(
+                "select id from tb_address where person_id = ? and is_main_address", Long.class, personId));
+    }
+
+    private int mainAddressCount(Long personId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from tb_address where person_id = ? and is_main_address", Integer.class, personId);
+        return count != null ? count : 0;
+    }
+
+    private static PersonDTO person(String email) {
+        List<AddressDTO> addresses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            var address = new AddressDTO();
+            address.setStreet("Rua " + i);
+            address.setCep("88700-000");
+            address.setNumber(String.valueOf(i));
+            address.setCity("Tubarão");
+            address.setState("Santa Catarina");
+            addresses.add(address);
+        }
+
+        var person = new PersonDTO();
+        person.setFullName("Maria Drummond");
+        person.setEmail(email);
+        person.setBirthDate(LocalDate.of(2000, 4, 11));
+        person.setAddress(addresses);
+        return person;
+    }
+}
@@ -0,0 +1,11 @@
+-- Runs after Hibernate has created the tables, like schema-postgresql.sql does in production.
+
+-- H2 stand-in for ex_address_one_main_per_person: H2 has neither EXCLUDE nor partial unique indexes, so a generated
+-- column holding person_id only on main addresses carries a plain unique index (NULLs never collide). Unlike the
+-- PostgreSQL constraint it is not deferred; H2 checks a multi-row UPDATE once all of its rows are written.
+ALTER TABLE tb_address ADD COLUMN main_address_person_id BIGINT
+    GENERATED ALWAYS AS (CASE WHEN is_main_address THEN person_id END)
+@@
+
+CREATE UNIQUE INDEX ux_address_one_main_per_person ON tb_address (main_address_person_id)
+@@